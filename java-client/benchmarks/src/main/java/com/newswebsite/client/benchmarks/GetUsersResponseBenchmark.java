@@ -0,0 +1,66 @@
+package com.newswebsite.client.benchmarks;
+
+import com.newswebsite.client.soap.generated.GetUsersResponse;
+import com.newswebsite.client.soap.generated.ObjectFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JAXB unmarshalling of getUsers responses of growing size, read through StAX as JAX-WS does
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GetUsersResponseBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    public int users;
+
+    private final XMLInputFactory inputFactory = XMLInputFactory.newFactory();
+    private Unmarshaller unmarshaller;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws JAXBException {
+        JAXBContext context = JAXBContext.newInstance(ObjectFactory.class);
+        Marshaller marshaller = context.createMarshaller();
+        marshaller.setProperty(Marshaller.JAXB_FRAGMENT, true);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        marshaller.marshal(UserFixtures.getUsersResponse(1, users, users), out);
+        payload = out.toByteArray();
+        unmarshaller = context.createUnmarshaller();
+    }
+
+    @Benchmark
+    public GetUsersResponse unmarshalGetUsersResponse() throws JAXBException, XMLStreamException {
+        XMLStreamReader reader = inputFactory.createXMLStreamReader(new ByteArrayInputStream(payload));
+        try {
+            return unmarshaller.unmarshal(reader, GetUsersResponse.class).getValue();
+        } finally {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.newswebsite.client.benchmarks;
+
+import com.newswebsite.client.gui.SoapClientService;
+import com.newswebsite.client.gui.UserCache;
+import com.newswebsite.client.soap.SoapClientConfig;
+import com.newswebsite.client.soap.UserServicePortPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SoapClientService call path against an in-process stub port: pool borrow/release,
+ * request building, cache handling and wrapping into UsersResult. No network or XML is involved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SoapClientServiceBenchmark {
+
+    private static final int TOTAL_USERS = 100_000;
+
+    @Param({"10", "100", "1000"})
+    public int pageSize;
+
+    private SoapClientService client;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SoapClientConfig config = SoapClientConfig.defaults();
+        UserServicePortPool pool = new UserServicePortPool(() -> new StubUserServiceSoap(TOTAL_USERS), 4,
+            config.getPoolBorrowTimeoutMillis());
+        client = new SoapClientService(config, pool);
+        // The cache is opt-in (only the GUI uses one)
+        client.setCache(new UserCache());
+        if (!client.authenticate("bench", "bench")) {
+            throw new IllegalStateException("Stub authentication failed");
+        }
+        // Warm the cache for the cached path
+        client.getUsersForGUI(1, pageSize, null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.getCache().clear();
+    }
+
+    /**
+     * Every call goes to the port: getUsers, then wrapping into UsersResult
+     */
+    @Benchmark
+    public SoapClientService.UsersResult getUsersDirect() {
+        return client.getUsersDirect(2, pageSize, null);
+    }
+
+    /**
+     * Page served from the client cache
+     */
+    @Benchmark
+    public SoapClientService.UsersResult getUsersForGuiCached() {
+        return client.getUsersForGUI(1, pageSize, null);
+    }
+
+    /**
+     * Same as getUsersDirect with four callers sharing the port pool
+     */
+    @Benchmark
+    @Threads(4)
+    public SoapClientService.UsersResult getUsersDirectContended() {
+        return client.getUsersDirect(2, pageSize, null);
+    }
+}
@@ -0,0 +1,61 @@
+package com.newswebsite.client.benchmarks;
+
+import com.newswebsite.client.soap.generated.AddUserRequest;
+import com.newswebsite.client.soap.generated.GetUsersRequest;
+import com.newswebsite.client.soap.generated.ObjectFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JAXB marshalling of the request payloads sent on every call.
+ * The context is shared as in JAX-WS; marshallers are per thread because they are not thread-safe.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SoapMarshallingBenchmark {
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+    private Marshaller marshaller;
+    private GetUsersRequest getUsersRequest;
+    private AddUserRequest addUserRequest;
+
+    @Setup
+    public void setUp() throws JAXBException {
+        marshaller = JAXBContext.newInstance(ObjectFactory.class).createMarshaller();
+        marshaller.setProperty(Marshaller.JAXB_FRAGMENT, true);
+        getUsersRequest = UserFixtures.getUsersRequest();
+        addUserRequest = UserFixtures.addUserRequest();
+    }
+
+    @Benchmark
+    public int marshalGetUsersRequest() throws JAXBException {
+        out.reset();
+        marshaller.marshal(getUsersRequest, out);
+        return out.size();
+    }
+
+    @Benchmark
+    public int marshalAddUserRequest() throws JAXBException {
+        out.reset();
+        marshaller.marshal(addUserRequest, out);
+        return out.size();
+    }
+}
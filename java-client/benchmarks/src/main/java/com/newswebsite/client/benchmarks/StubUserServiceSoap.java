@@ -0,0 +1,79 @@
+package com.newswebsite.client.benchmarks;
+
+import com.newswebsite.client.soap.generated.AddUserRequest;
+import com.newswebsite.client.soap.generated.AddUserResponse;
+import com.newswebsite.client.soap.generated.AuthenticateUserRequest;
+import com.newswebsite.client.soap.generated.AuthenticateUserResponse;
+import com.newswebsite.client.soap.generated.DeleteUserRequest;
+import com.newswebsite.client.soap.generated.DeleteUserResponse;
+import com.newswebsite.client.soap.generated.GetUserByIdRequest;
+import com.newswebsite.client.soap.generated.GetUserByIdResponse;
+import com.newswebsite.client.soap.generated.GetUsersRequest;
+import com.newswebsite.client.soap.generated.GetUsersResponse;
+import com.newswebsite.client.soap.generated.UpdateUserRequest;
+import com.newswebsite.client.soap.generated.UpdateUserResponse;
+import com.newswebsite.client.soap.generated.UserServiceSoap;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process port answering from prebuilt objects, so that only the client layer is measured.
+ * getUsers pages are built once per page and limit and then reused; the client never modifies them.
+ */
+final class StubUserServiceSoap implements UserServiceSoap {
+
+    private final int total;
+    private final Map<Long, GetUsersResponse> pages = new ConcurrentHashMap<>();
+
+    StubUserServiceSoap(int total) {
+        this.total = total;
+    }
+
+    @Override
+    public AuthenticateUserResponse authenticateUser(AuthenticateUserRequest parameters) {
+        AuthenticateUserResponse response = new AuthenticateUserResponse();
+        response.setSuccess(true);
+        response.setToken(UserFixtures.TOKEN);
+        response.setUser(UserFixtures.user(0));
+        return response;
+    }
+
+    @Override
+    public GetUsersResponse getUsers(GetUsersRequest parameters) {
+        int page = parameters.getPage() != null ? parameters.getPage() : 1;
+        int limit = parameters.getLimit() != null ? parameters.getLimit() : 10;
+        return pages.computeIfAbsent(((long) page << 32) | limit, key -> UserFixtures.getUsersResponse(page, limit, total));
+    }
+
+    @Override
+    public AddUserResponse addUser(AddUserRequest parameters) {
+        AddUserResponse response = new AddUserResponse();
+        response.setSuccess(true);
+        response.setUser(UserFixtures.user(total));
+        return response;
+    }
+
+    @Override
+    public UpdateUserResponse updateUser(UpdateUserRequest parameters) {
+        UpdateUserResponse response = new UpdateUserResponse();
+        response.setSuccess(true);
+        response.setUser(UserFixtures.user(0));
+        return response;
+    }
+
+    @Override
+    public DeleteUserResponse deleteUser(DeleteUserRequest parameters) {
+        DeleteUserResponse response = new DeleteUserResponse();
+        response.setSuccess(true);
+        return response;
+    }
+
+    @Override
+    public GetUserByIdResponse getUserById(GetUserByIdRequest parameters) {
+        GetUserByIdResponse response = new GetUserByIdResponse();
+        response.setSuccess(true);
+        response.setUser(UserFixtures.user(0));
+        return response;
+    }
+}
@@ -1,16 +1,36 @@
 package com.newswebsite.client;
 
-import com.newswebsite.client.soap.SoapClient;
+import com.newswebsite.client.bulk.BatchScriptRunner;
+import com.newswebsite.client.bulk.BulkUserImporter;
+import com.newswebsite.client.bulk.UserExporter;
+import com.newswebsite.client.bulk.UserRecordReader;
+import com.newswebsite.client.bulk.UserRecordWriter;
+import com.newswebsite.client.gui.SoapClientService;
+import com.newswebsite.client.soap.SoapClientConfig;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.Scanner;
 
 public class InteractiveSession {
 
-    private final SoapClient soapClient;
+    private final SoapClientService soapClient;
+    private final SoapClientConfig soapConfig;
     private String authToken;
 
     public InteractiveSession(String soapServiceUrl) {
-        this.soapClient = new SoapClient(soapServiceUrl);
+        this(SoapClientConfig.defaults().withServiceUrl(soapServiceUrl));
+    }
+
+    public InteractiveSession(SoapClientConfig soapConfig) {
+        this.soapConfig = soapConfig;
+        this.soapClient = new SoapClientService(soapConfig);
     }
 
     public void start() throws Exception {
@@ -61,11 +81,24 @@ public class InteractiveSession {
             System.out.println("2. Add User");
             System.out.println("3. Update User");
             System.out.println("4. Delete User");
-            System.out.println("5. Exit");
+            System.out.println("5. Import Users from File");
+            System.out.println("6. Export Users to File");
+            System.out.println("7. SOAP Statistics (stats)");
+            System.out.println("8. Run Batch Script");
+            System.out.println("9. Exit");
             System.out.print("Choose an option: ");
 
-            int choice = scanner.nextInt();
-            scanner.nextLine(); // Consume newline
+            String input = scanner.nextLine().trim();
+            int choice;
+            if ("stats".equalsIgnoreCase(input)) {
+                choice = 7;
+            } else {
+                try {
+                    choice = Integer.parseInt(input);
+                } catch (NumberFormatException e) {
+                    choice = -1;
+                }
+            }
 
             switch (choice) {
                 case 1: // List Users
@@ -105,7 +138,19 @@ public class InteractiveSession {
                     String userIdToDelete = scanner.nextLine();
                     soapClient.deleteUser(userIdToDelete);
                     break;
-                case 5:
+                case 5: // Import Users
+                    importUsers(scanner);
+                    break;
+                case 6: // Export Users
+                    exportUsers(scanner);
+                    break;
+                case 7: // SOAP Statistics
+                    showStats();
+                    break;
+                case 8: // Batch Script
+                    runBatch(scanner);
+                    break;
+                case 9:
                     System.out.println("Exiting.");
                     return;
                 default:
@@ -113,4 +158,85 @@ public class InteractiveSession {
             }
         }
     }
+
+    private void showStats() {
+        System.out.print(soapClient.getMetrics().format());
+        System.out.println("Latencies are measured from request send to response end; "
+            + "payload sizes come from Content-Length or a sample of the messages.");
+        System.out.println("Circuit breaker: " + soapClient.getCircuitState());
+    }
+
+    private void importUsers(Scanner scanner) {
+        System.out.print("File (.csv or .jsonl): ");
+        String fileName = scanner.nextLine().trim();
+        System.out.print("Parallel requests (default " + soapConfig.getPoolSize() + "): ");
+        String parallelismInput = scanner.nextLine().trim();
+        int parallelism = parallelismInput.isEmpty() ? soapConfig.getPoolSize() : Integer.parseInt(parallelismInput);
+
+        Path file = Paths.get(fileName);
+        Path checkpoint = Paths.get(fileName + ".checkpoint");
+        Path rejects = BulkUserImporter.rejectFileFor(file);
+        BulkUserImporter importer = new BulkUserImporter(soapClient, parallelism, 100, -1, System.out);
+        try {
+            BulkUserImporter.Summary summary = importer.importFile(file, UserRecordReader.Format.fromFileName(fileName),
+                checkpoint, rejects);
+            System.out.println("Import finished: " + summary);
+            if (summary.getFailed() > 0) {
+                System.out.println("Failed rows written to " + rejects);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Import interrupted. Re-run to resume from " + checkpoint);
+        } catch (Exception e) {
+            System.err.println("Import failed: " + e.getMessage() + ". Re-run to resume from " + checkpoint);
+        }
+    }
+
+    private void runBatch(Scanner scanner) {
+        System.out.print("Script file: ");
+        String fileName = scanner.nextLine().trim();
+        System.out.print("Commands in flight (default " + soapConfig.getPoolSize() + "): ");
+        String concurrencyInput = scanner.nextLine().trim();
+        int concurrency = concurrencyInput.isEmpty() ? soapConfig.getPoolSize() : Integer.parseInt(concurrencyInput);
+
+        BatchScriptRunner runner = new BatchScriptRunner(soapClient, concurrency, System.out);
+        try (BufferedReader script = Files.newBufferedReader(Paths.get(fileName), StandardCharsets.UTF_8)) {
+            System.out.println("Batch finished: " + runner.run(script));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Batch interrupted.");
+        } catch (Exception e) {
+            System.err.println("Batch failed: " + e.getMessage());
+        }
+    }
+
+    private void exportUsers(Scanner scanner) {
+        System.out.print("File (.csv, .jsonl or .bin): ");
+        String fileName = scanner.nextLine().trim();
+        System.out.print("Role filter (leave blank for all users): ");
+        String role = scanner.nextLine().trim();
+
+        UserRecordWriter.Format format = UserRecordWriter.Format.fromFileName(fileName);
+        UserExporter exporter = new UserExporter(soapClient, UserExporter.DEFAULT_PAGE_SIZE, System.out);
+        // Written under a temporary name and renamed once complete: a failed export leaves no
+        // partial file and does not replace an earlier one
+        Path target = Paths.get(fileName).toAbsolutePath();
+        Path partial = target.resolveSibling(target.getFileName() + ".part");
+        try {
+            UserExporter.Summary summary;
+            try (OutputStream out = Files.newOutputStream(partial);
+                 UserRecordWriter writer = UserRecordWriter.create(format, out)) {
+                summary = exporter.export(role.isEmpty() ? null : role, writer);
+            }
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Export finished: " + summary);
+        } catch (Exception e) {
+            System.err.println("Export failed: " + e.getMessage());
+            try {
+                Files.deleteIfExists(partial);
+            } catch (IOException deleteError) {
+                System.err.println("Could not delete " + partial + ": " + deleteError.getMessage());
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -1,5 +1,15 @@
 package com.newswebsite.client;
 
+import com.newswebsite.client.commands.BatchCommand;
+import com.newswebsite.client.commands.CdsTrainingCommand;
+import com.newswebsite.client.commands.LoadTestCommand;
+import com.newswebsite.client.commands.MirrorCommand;
+import com.newswebsite.client.commands.NewsClientCommand;
+import com.newswebsite.client.commands.SoapCommand;
+import com.newswebsite.client.commands.StubServerCommand;
+import com.newswebsite.client.soap.SoapClientConfig;
+import picocli.CommandLine;
+
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -7,8 +17,7 @@ import java.util.Properties;
 
 public class NewsClientApplication {
 
-    private static final String SOAP_URL_PROPERTY = "soap.service.url";
-    private static final String DEFAULT_SOAP_URL = "http://localhost:8080/soap";
+    private static final String LOG_LEVEL_PROPERTY = "news.client.log.level";
 
     public static void main(String[] args) {
         // Load configuration
@@ -19,11 +28,26 @@ public class NewsClientApplication {
             // Ignore if config file not found, use defaults
         }
 
-        String soapServiceUrl = props.getProperty(SOAP_URL_PROPERTY, DEFAULT_SOAP_URL);
+        SoapClientConfig soapConfig = SoapClientConfig.fromProperties(props);
+
+        if (args.length > 0) {
+            if ("soap".equals(args[0]) && System.getProperty(LOG_LEVEL_PROPERTY) == null) {
+                // Scripted one-shot calls: only warnings and errors on stderr (read by logback.xml)
+                System.setProperty(LOG_LEVEL_PROPERTY, "WARN");
+            }
+            CommandLine commandLine = new CommandLine(new NewsClientCommand())
+                .addSubcommand(new BatchCommand(soapConfig))
+                .addSubcommand(new LoadTestCommand(soapConfig))
+                .addSubcommand(new StubServerCommand())
+                .addSubcommand(new MirrorCommand())
+                .addSubcommand(SoapCommand.create(soapConfig))
+                .addSubcommand(new CdsTrainingCommand());
+            System.exit(commandLine.execute(args));
+        }
 
         // Start interactive session
         try {
-            new InteractiveSession(soapServiceUrl).start();
+            new InteractiveSession(soapConfig).start();
         } catch (Exception e) {
             System.err.println("Application error: " + e.getMessage());
             e.printStackTrace();
@@ -0,0 +1,218 @@
+package com.newswebsite.client.bulk;
+
+import com.newswebsite.client.gui.SoapClientService;
+import com.newswebsite.client.soap.generated.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs a script of {@link ScriptCommand} lines (list/add/update/delete) against the SOAP service.
+ *
+ * The script is streamed and commands start in script order with at most {@code concurrency}
+ * of them in flight. Independent commands overlap; a command on the same user id (or, for add,
+ * the same username) as an earlier one starts only after that one has finished. A command
+ * waiting for an earlier one keeps its slot. Each command is reported as {@code OK} or
+ * {@code FAILED} with its line number; a line that does not parse counts as a failure and the
+ * script goes on.
+ */
+public class BatchScriptRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchScriptRunner.class);
+
+    /** Failed line numbers kept for the summary */
+    private static final int MAX_REPORTED_FAILURES = 20;
+
+    /**
+     * Outcome of a script run
+     */
+    public static final class Summary {
+        private final long succeeded;
+        private final long failed;
+        private final Map<ScriptCommand.Type, Long> commandsByType;
+        private final List<Long> failedLines;
+        private final long elapsedMillis;
+
+        Summary(long succeeded, long failed, Map<ScriptCommand.Type, Long> commandsByType,
+                List<Long> failedLines, long elapsedMillis) {
+            this.succeeded = succeeded;
+            this.failed = failed;
+            this.commandsByType = commandsByType;
+            this.failedLines = failedLines;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public long getSucceeded() { return succeeded; }
+        public long getFailed() { return failed; }
+        public Map<ScriptCommand.Type, Long> getCommandsByType() { return commandsByType; }
+        /** Line numbers of the first failures, in line order */
+        public List<Long> getFailedLines() { return failedLines; }
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        public double getCommandsPerSecond() {
+            return elapsedMillis == 0 ? 0 : (succeeded + failed) * 1000.0 / elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder(String.format("%d commands (%d ok, %d failed) in %.1f s - %.1f commands/s %s",
+                succeeded + failed, succeeded, failed, elapsedMillis / 1000.0, getCommandsPerSecond(), commandsByType));
+            if (!failedLines.isEmpty()) {
+                text.append(System.lineSeparator()).append("Failed lines: ");
+                for (int i = 0; i < failedLines.size(); i++) {
+                    text.append(i == 0 ? "" : ", ").append(failedLines.get(i));
+                }
+                if (failed > failedLines.size()) {
+                    text.append(", ...");
+                }
+            }
+            return text.toString();
+        }
+    }
+
+    private final SoapClientService soapClient;
+    private final int concurrency;
+    private final PrintStream report;
+
+    /**
+     * @param concurrency maximum number of commands in flight
+     * @param report      receives one line per command (list results included)
+     */
+    public BatchScriptRunner(SoapClientService soapClient, int concurrency, PrintStream report) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency must be at least 1");
+        }
+        this.soapClient = soapClient;
+        this.concurrency = concurrency;
+        this.report = report;
+    }
+
+    public Summary run(BufferedReader script) throws IOException, InterruptedException {
+        Semaphore inFlight = new Semaphore(concurrency);
+        // Last command started for each ordering key; removed once it completes
+        Map<String, CompletableFuture<Void>> lastByKey = new ConcurrentHashMap<>();
+        Map<ScriptCommand.Type, Long> commandsByType = new EnumMap<>(ScriptCommand.Type.class);
+        AtomicLong succeeded = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        List<Long> failedLines = Collections.synchronizedList(new ArrayList<>());
+        long start = System.nanoTime();
+
+        String line;
+        long lineNumber = 0;
+        while ((line = script.readLine()) != null) {
+            lineNumber++;
+            ScriptCommand command;
+            try {
+                command = ScriptCommand.parse(line, lineNumber);
+            } catch (IllegalArgumentException e) {
+                report.println("line " + lineNumber + ": FAILED " + e.getMessage());
+                recordFailure(lineNumber, failed, failedLines);
+                continue;
+            }
+            if (command == null) {
+                continue;
+            }
+            commandsByType.merge(command.getType(), 1L, Long::sum);
+
+            inFlight.acquire();
+            String key = command.getOrderingKey();
+            CompletableFuture<Void> previous = key == null ? null : lastByKey.get(key);
+            CompletableFuture<Void> task = previous == null
+                ? execute(command, succeeded, failed, failedLines)
+                : previous.thenCompose(ignored -> execute(command, succeeded, failed, failedLines));
+            if (key != null) {
+                lastByKey.put(key, task);
+            }
+            task.whenComplete((ignored, error) -> {
+                if (key != null) {
+                    lastByKey.remove(key, task);
+                }
+                inFlight.release();
+            });
+        }
+        // Every slot free again means every command has completed
+        inFlight.acquire(concurrency);
+
+        List<Long> firstFailures = new ArrayList<>(failedLines);
+        Collections.sort(firstFailures);
+        Summary summary = new Summary(succeeded.get(), failed.get(), commandsByType,
+            firstFailures.subList(0, Math.min(MAX_REPORTED_FAILURES, firstFailures.size())),
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        logger.info("Batch script: {}", summary);
+        return summary;
+    }
+
+    /**
+     * Start one command; the future always completes normally once the outcome is reported
+     */
+    private CompletableFuture<Void> execute(ScriptCommand command, AtomicLong succeeded, AtomicLong failed,
+                                            List<Long> failedLines) {
+        CompletableFuture<String> outcome;
+        switch (command.getType()) {
+            case LIST:
+                outcome = soapClient.getUsersAsync(command.getPage(), command.getLimit(), command.getRole())
+                    .thenApply(result -> result.isSuccess()
+                        ? listed(result) : failure(result.getError()));
+                break;
+            case ADD:
+                outcome = soapClient.addUserAsync(command.getUsername(), command.getEmail(), command.getPassword(), command.getRole())
+                    .thenApply(result -> result.isSuccess() ? "id=" + result.getUser().getId() : failure(result.getError()));
+                break;
+            case UPDATE:
+                outcome = soapClient.updateUserAsync(command.getUserId(), command.getUsername(), command.getEmail(),
+                        command.getPassword(), command.getRole())
+                    .thenApply(result -> result.isSuccess() ? "" : failure(result.getError()));
+                break;
+            default:
+                outcome = soapClient.deleteUserAsync(command.getUserId())
+                    .thenApply(result -> result.isSuccess() ? "" : failure(result.getError()));
+                break;
+        }
+        return outcome.handle((details, error) -> {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause() : error;
+            if (cause == null) {
+                succeeded.incrementAndGet();
+                report.println("line " + command.getLineNumber() + ": OK " + command.describe()
+                    + (details.isEmpty() ? "" : " " + details));
+            } else {
+                recordFailure(command.getLineNumber(), failed, failedLines);
+                report.println("line " + command.getLineNumber() + ": FAILED " + command.describe() + " " + cause.getMessage());
+            }
+            return null;
+        });
+    }
+
+    private static String listed(SoapClientService.UsersResult result) {
+        StringBuilder text = new StringBuilder();
+        text.append(result.getUsers().size()).append(" of ").append(result.getTotal()).append(" users");
+        for (User user : result.getUsers()) {
+            text.append(System.lineSeparator()).append(String.format("  %-24s %-20s %-30s %s",
+                user.getId(), user.getUsername(), user.getEmail(), user.getRole()));
+        }
+        return text.toString();
+    }
+
+    private static String failure(String error) {
+        throw new IllegalStateException(error);
+    }
+
+    private static void recordFailure(long lineNumber, AtomicLong failed, List<Long> failedLines) {
+        failed.incrementAndGet();
+        failedLines.add(lineNumber);
+    }
+}
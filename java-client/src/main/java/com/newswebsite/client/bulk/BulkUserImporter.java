@@ -0,0 +1,293 @@
+package com.newswebsite.client.bulk;
+
+import com.newswebsite.client.gui.SoapClientService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Creates users from a CSV or JSONL file through concurrent addUser SOAP calls.
+ *
+ * The file is streamed: only the current batch of rows is held in memory. At most
+ * {@code parallelism} calls are in flight. Once every row of a batch has completed,
+ * the line number of its last row is written to the checkpoint file, so an interrupted
+ * import can be restarted from there. Failed rows are behind the checkpoint too: they are
+ * copied to a reject file, in the input format, to be fixed and imported on their own.
+ */
+public class BulkUserImporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkUserImporter.class);
+    private static final String DEFAULT_ROLE = "VISITOR";
+
+    /**
+     * Outcome of an import run
+     */
+    public static final class Summary {
+        private final long succeeded;
+        private final long failed;
+        private final long skipped;
+        private final long elapsedMillis;
+        private final boolean aborted;
+
+        Summary(long succeeded, long failed, long skipped, long elapsedMillis, boolean aborted) {
+            this.succeeded = succeeded;
+            this.failed = failed;
+            this.skipped = skipped;
+            this.elapsedMillis = elapsedMillis;
+            this.aborted = aborted;
+        }
+
+        public long getSucceeded() { return succeeded; }
+        public long getFailed() { return failed; }
+        public long getSkipped() { return skipped; }
+        public long getElapsedMillis() { return elapsedMillis; }
+        public boolean isAborted() { return aborted; }
+
+        public double getRowsPerSecond() {
+            return elapsedMillis == 0 ? 0 : (succeeded + failed) * 1000.0 / elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d created, %d failed, %d skipped (checkpoint) in %.1f s - %.1f rows/s%s",
+                succeeded, failed, skipped, elapsedMillis / 1000.0, getRowsPerSecond(), aborted ? " [ABORTED]" : "");
+        }
+    }
+
+    private final SoapClientService soapClient;
+    private final int parallelism;
+    private final int batchSize;
+    private final long maxFailures;
+    private final PrintStream report;
+
+    /**
+     * @param parallelism maximum number of addUser calls in flight
+     * @param batchSize   rows between two checkpoints
+     * @param maxFailures failed rows after which the import stops, or a negative value for no limit
+     * @param report      receives one line per row and a progress line per batch
+     */
+    public BulkUserImporter(SoapClientService soapClient, int parallelism, int batchSize, long maxFailures, PrintStream report) {
+        if (parallelism < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("parallelism and batchSize must be at least 1");
+        }
+        this.soapClient = soapClient;
+        this.parallelism = parallelism;
+        this.batchSize = batchSize;
+        this.maxFailures = maxFailures;
+        this.report = report;
+    }
+
+    /**
+     * Reject file next to the input, with the same extension: {@code users.csv} gives {@code users.rejects.csv}
+     */
+    public static Path rejectFileFor(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String rejectName = dot > 0 ? name.substring(0, dot) + ".rejects" + name.substring(dot) : name + ".rejects";
+        return file.resolveSibling(rejectName);
+    }
+
+    /**
+     * Import a file, resuming after the line recorded in the checkpoint file if it exists.
+     * Failed rows are written to {@code rejectFile}, which a fresh import (no checkpoint)
+     * replaces and a resumed one appends to. The checkpoint is deleted once the whole file
+     * has been processed.
+     */
+    public Summary importFile(Path file, UserRecordReader.Format format, Path checkpointFile, Path rejectFile)
+            throws IOException, InterruptedException {
+        long resumeAfter = readCheckpoint(checkpointFile);
+        if (resumeAfter > 0) {
+            report.println("Resuming after line " + resumeAfter + " (" + checkpointFile + ")");
+        }
+
+        Semaphore inFlight = new Semaphore(parallelism);
+        AtomicLong succeeded = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        long skipped = 0;
+        boolean aborted = false;
+        long start = System.nanoTime();
+
+        try (UserRecordReader reader = new UserRecordReader(file, format);
+             RejectFile rejects = new RejectFile(rejectFile, reader.getHeader(), resumeAfter > 0)) {
+            List<CompletableFuture<Void>> batch = new ArrayList<>(batchSize);
+            long lastSubmitted = resumeAfter;
+            try {
+                UserRecordReader.Record record;
+                while ((record = reader.next()) != null) {
+                    if (record.getLineNumber() <= resumeAfter) {
+                        skipped++;
+                        continue;
+                    }
+
+                    batch.add(submit(record, inFlight, succeeded, failed, rejects));
+                    lastSubmitted = record.getLineNumber();
+
+                    if (batch.size() == batchSize) {
+                        completeBatch(batch, lastSubmitted, checkpointFile, rejects);
+                        printProgress(succeeded.get(), failed.get(), start);
+                        if (maxFailures >= 0 && failed.get() > maxFailures) {
+                            aborted = true;
+                            break;
+                        }
+                    }
+                }
+                if (!aborted && !batch.isEmpty()) {
+                    completeBatch(batch, reader.getLineNumber(), checkpointFile, rejects);
+                    printProgress(succeeded.get(), failed.get(), start);
+                }
+            } finally {
+                // On a read error or an interrupt, the rows already sent still complete and are
+                // checkpointed, so a resume does not send them again
+                if (!batch.isEmpty()) {
+                    completeBatch(batch, lastSubmitted, checkpointFile, rejects);
+                }
+            }
+        }
+
+        if (aborted) {
+            report.println("Too many failures, import stopped. Re-run to resume from " + checkpointFile);
+        } else {
+            Files.deleteIfExists(checkpointFile);
+        }
+        Summary summary = new Summary(succeeded.get(), failed.get(), skipped,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), aborted);
+        logger.info("Bulk import of {}: {}", file, summary);
+        return summary;
+    }
+
+    private CompletableFuture<Void> submit(UserRecordReader.Record record, Semaphore inFlight,
+                                           AtomicLong succeeded, AtomicLong failed, RejectFile rejects)
+            throws InterruptedException {
+        if (record.getError() != null) {
+            reject(record, record.getError(), failed, rejects);
+            return CompletableFuture.completedFuture(null);
+        }
+        if (record.getUsername() == null || record.getEmail() == null || record.getPassword() == null) {
+            reject(record, "missing username, email or password", failed, rejects);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        inFlight.acquire();
+        String role = record.getRole() != null ? record.getRole() : DEFAULT_ROLE;
+        return soapClient.addUserAsync(record.getUsername(), record.getEmail(), record.getPassword(), role)
+            .handle((result, error) -> {
+                inFlight.release();
+                if (error == null && result.isSuccess()) {
+                    succeeded.incrementAndGet();
+                    report.println("line " + record.getLineNumber() + ": OK " + record.getUsername()
+                        + " id=" + result.getUser().getId());
+                } else {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                    reject(record, record.getUsername() + " " + (cause != null ? cause.getMessage() : result.getError()),
+                        failed, rejects);
+                }
+                return null;
+            });
+    }
+
+    private void reject(UserRecordReader.Record record, String reason, AtomicLong failed, RejectFile rejects) {
+        failed.incrementAndGet();
+        report.println("line " + record.getLineNumber() + ": FAILED " + reason);
+        try {
+            rejects.add(record);
+        } catch (IOException e) {
+            logger.error("Could not write line {} to the reject file", record.getLineNumber(), e);
+        }
+    }
+
+    /**
+     * Wait for the batch, then save the rejects before the checkpoint that moves past them
+     */
+    private void completeBatch(List<CompletableFuture<Void>> batch, long lastLine, Path checkpointFile,
+                               RejectFile rejects) throws IOException {
+        CompletableFuture.allOf(batch.toArray(new CompletableFuture<?>[0])).join();
+        batch.clear();
+        rejects.flush();
+        writeCheckpoint(checkpointFile, lastLine);
+    }
+
+    private void printProgress(long succeeded, long failed, long start) {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        report.printf("[import] %d rows (%d ok, %d failed) - %.1f rows/s%n",
+            succeeded + failed, succeeded, failed, seconds > 0 ? (succeeded + failed) / seconds : 0);
+    }
+
+    private static long readCheckpoint(Path checkpointFile) throws IOException {
+        if (!Files.exists(checkpointFile)) {
+            return 0;
+        }
+        String content = new String(Files.readAllBytes(checkpointFile), StandardCharsets.UTF_8).trim();
+        return content.isEmpty() ? 0 : Long.parseLong(content);
+    }
+
+    /**
+     * Failed input lines, copied as read; the file is created on the first reject
+     */
+    private static final class RejectFile implements Closeable {
+        private final Path path;
+        private final String header;
+        private BufferedWriter writer;
+
+        RejectFile(Path path, String header, boolean resuming) throws IOException {
+            this.path = path;
+            this.header = header;
+            if (!resuming) {
+                Files.deleteIfExists(path);
+            }
+        }
+
+        synchronized void add(UserRecordReader.Record record) throws IOException {
+            if (writer == null) {
+                boolean exists = Files.exists(path);
+                writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                if (!exists && header != null) {
+                    writer.write(header);
+                    writer.newLine();
+                }
+            }
+            writer.write(record.getText());
+            writer.newLine();
+        }
+
+        synchronized void flush() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            if (writer != null) {
+                writer.close();
+            }
+        }
+    }
+
+    /**
+     * Write to a temporary file then rename, so a crash never leaves a truncated checkpoint
+     */
+    private static void writeCheckpoint(Path checkpointFile, long lastLine) throws IOException {
+        Path absolute = checkpointFile.toAbsolutePath();
+        Path tmp = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+        Files.write(tmp, Long.toString(lastLine).getBytes(StandardCharsets.UTF_8));
+        Files.move(tmp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,217 @@
+package com.newswebsite.client.bulk;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * One line of a batch script.
+ *
+ * <pre>
+ * list   [page=N] [limit=N] [role=R]
+ * add    &lt;username&gt; &lt;email&gt; &lt;password&gt; [role=R]
+ * update &lt;userId&gt; [username=U] [email=E] [password=P] [role=R]
+ * delete &lt;userId&gt;
+ * </pre>
+ *
+ * Values containing spaces are written in double quotes; a token starting with a quote is
+ * never read as {@code name=value}, so {@code "pa=ss"} is a password. Blank lines and lines
+ * starting with {@code #} are ignored.
+ */
+public final class ScriptCommand {
+
+    public enum Type {
+        LIST, ADD, UPDATE, DELETE
+    }
+
+    private final long lineNumber;
+    private final Type type;
+    private final String userId;
+    private final String username;
+    private final String email;
+    private final String password;
+    private final String role;
+    private final int page;
+    private final int limit;
+
+    private ScriptCommand(long lineNumber, Type type, String userId, String username, String email,
+                          String password, String role, int page, int limit) {
+        this.lineNumber = lineNumber;
+        this.type = type;
+        this.userId = userId;
+        this.username = username;
+        this.email = email;
+        this.password = password;
+        this.role = role;
+        this.page = page;
+        this.limit = limit;
+    }
+
+    /**
+     * Parse a script line
+     *
+     * @return null for blank and comment lines
+     * @throws IllegalArgumentException if the line is not a valid command
+     */
+    public static ScriptCommand parse(String line, long lineNumber) {
+        String trimmed = line.trim();
+        if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+            return null;
+        }
+        List<String> positional = new ArrayList<>();
+        Map<String, String> named = new HashMap<>();
+        for (Token token : tokenize(trimmed)) {
+            int equals = token.text.indexOf('=');
+            if (equals > 0 && !token.quoted && !positional.isEmpty()) {
+                named.put(token.text.substring(0, equals).toLowerCase(Locale.ROOT), token.text.substring(equals + 1));
+            } else {
+                positional.add(token.text);
+            }
+        }
+
+        String name = positional.get(0).toLowerCase(Locale.ROOT);
+        switch (name) {
+            case "list":
+                expect(positional, 1, "list [page=N] [limit=N] [role=R]");
+                allow(named, "list", "page", "limit", "role");
+                return new ScriptCommand(lineNumber, Type.LIST, null, null, null, null, named.get("role"),
+                    intValue(named, "page", 1), intValue(named, "limit", 10));
+            case "add":
+                expect(positional, 4, "add <username> <email> <password> [role=R]");
+                allow(named, "add", "role");
+                return new ScriptCommand(lineNumber, Type.ADD, null, positional.get(1), positional.get(2),
+                    positional.get(3), named.getOrDefault("role", "VISITOR"), 0, 0);
+            case "update":
+                expect(positional, 2, "update <userId> [username=U] [email=E] [password=P] [role=R]");
+                allow(named, "update", "username", "email", "password", "role");
+                if (named.isEmpty()) {
+                    throw new IllegalArgumentException("update needs at least one of username=, email=, password=, role=");
+                }
+                return new ScriptCommand(lineNumber, Type.UPDATE, positional.get(1), named.get("username"),
+                    named.get("email"), named.get("password"), named.get("role"), 0, 0);
+            case "delete":
+                expect(positional, 2, "delete <userId>");
+                allow(named, "delete");
+                return new ScriptCommand(lineNumber, Type.DELETE, positional.get(1), null, null, null, null, 0, 0);
+            default:
+                throw new IllegalArgumentException("Unknown command '" + positional.get(0) + "' (list, add, update, delete)");
+        }
+    }
+
+    public long getLineNumber() { return lineNumber; }
+    public Type getType() { return type; }
+    public String getUserId() { return userId; }
+    public String getUsername() { return username; }
+    public String getEmail() { return email; }
+    public String getPassword() { return password; }
+    public String getRole() { return role; }
+    public int getPage() { return page; }
+    public int getLimit() { return limit; }
+
+    /**
+     * Commands with the same key run in script order: the user id for update and delete,
+     * the username for add. List commands have no key and never wait.
+     */
+    public String getOrderingKey() {
+        switch (type) {
+            case UPDATE:
+            case DELETE:
+                return "id:" + userId;
+            case ADD:
+                return "username:" + username;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Short description for reports; never includes the password
+     */
+    public String describe() {
+        switch (type) {
+            case LIST:
+                return "list page " + page + (role != null ? " role " + role : "");
+            case ADD:
+                return "add " + username;
+            default:
+                return type.name().toLowerCase(Locale.ROOT) + " " + userId;
+        }
+    }
+
+    private static final class Token {
+        final String text;
+        final boolean quoted;
+
+        Token(String text, boolean quoted) {
+            this.text = text;
+            this.quoted = quoted;
+        }
+    }
+
+    private static List<Token> tokenize(String line) {
+        List<Token> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        boolean inToken = false;
+        boolean startsQuoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                if (!inToken) {
+                    startsQuoted = true;
+                }
+                quoted = !quoted;
+                inToken = true;
+            } else if (Character.isWhitespace(c) && !quoted) {
+                if (inToken) {
+                    tokens.add(new Token(current.toString(), startsQuoted));
+                    current.setLength(0);
+                    inToken = false;
+                    startsQuoted = false;
+                }
+            } else {
+                current.append(c);
+                inToken = true;
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quote");
+        }
+        if (inToken) {
+            tokens.add(new Token(current.toString(), startsQuoted));
+        }
+        return tokens;
+    }
+
+    private static void expect(List<String> positional, int count, String usage) {
+        if (positional.size() != count) {
+            throw new IllegalArgumentException("Usage: " + usage);
+        }
+    }
+
+    private static void allow(Map<String, String> named, String command, String... keys) {
+        for (String key : named.keySet()) {
+            if (!List.of(keys).contains(key)) {
+                throw new IllegalArgumentException("Unknown option '" + key + "' for " + command);
+            }
+        }
+    }
+
+    private static int intValue(Map<String, String> named, String key, int defaultValue) {
+        String value = named.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed < 1) {
+                throw new IllegalArgumentException(key + " must be at least 1");
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + key + ": " + value);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.newswebsite.client.bulk;
+
+import com.newswebsite.client.gui.ParallelUserScan;
+import com.newswebsite.client.gui.SoapClientService;
+import com.newswebsite.client.soap.generated.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Walks every page of getUsers and streams the users to a {@link UserRecordWriter}.
+ *
+ * Up to {@code fanOut} pages are fetched in parallel and written in order. Only those
+ * pages are held in memory, so memory use does not depend on the size of the directory.
+ * Pages bypass the client cache.
+ */
+public class UserExporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserExporter.class);
+
+    public static final int DEFAULT_PAGE_SIZE = 500;
+    public static final int DEFAULT_FAN_OUT = 4;
+
+    /**
+     * Outcome of an export run
+     */
+    public static final class Summary {
+        private final long exported;
+        private final long elapsedMillis;
+
+        Summary(long exported, long elapsedMillis) {
+            this.exported = exported;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public long getExported() { return exported; }
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        public double getRecordsPerSecond() {
+            return elapsedMillis == 0 ? 0 : exported * 1000.0 / elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d users in %.1f s - %.1f records/s", exported, elapsedMillis / 1000.0, getRecordsPerSecond());
+        }
+    }
+
+    private final SoapClientService soapClient;
+    private final int pageSize;
+    private final int fanOut;
+    private final PrintStream progress;
+
+    public UserExporter(SoapClientService soapClient, int pageSize, PrintStream progress) {
+        this(soapClient, pageSize, DEFAULT_FAN_OUT, progress);
+    }
+
+    public UserExporter(SoapClientService soapClient, int pageSize, int fanOut, PrintStream progress) {
+        this.soapClient = soapClient;
+        this.pageSize = pageSize;
+        this.fanOut = fanOut;
+        this.progress = progress;
+    }
+
+    /**
+     * Export every user, or only those with the given role when it is not empty.
+     * The writer is finished if every user was written, only flushed otherwise, and not closed.
+     */
+    public Summary export(String role, UserRecordWriter writer) throws IOException {
+        long start = System.nanoTime();
+        long exported = 0;
+        try (ParallelUserScan scan = soapClient.scanUsers(pageSize, role, fanOut)) {
+            while (scan.hasNext()) {
+                SoapClientService.UsersResult result;
+                try {
+                    result = scan.next();
+                } catch (IllegalStateException e) {
+                    writer.flush();
+                    throw new IOException("Export stopped after " + exported + " users: " + e.getMessage(), e);
+                }
+                for (User user : result.getUsers()) {
+                    writer.write(user);
+                }
+                exported += result.getUsers().size();
+
+                double seconds = (System.nanoTime() - start) / 1e9;
+                progress.printf("[export] %d / %d users - %.1f records/s%n",
+                    exported, scan.getTotal(), seconds > 0 ? exported / seconds : 0);
+            }
+        }
+        writer.finish();
+
+        Summary summary = new Summary(exported, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        logger.info("User export: {}", summary);
+        return summary;
+    }
+}
@@ -0,0 +1,223 @@
+package com.newswebsite.client.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads user rows one at a time from a CSV or JSONL file.
+ *
+ * CSV files start with a header naming the username, email, password and role columns.
+ * JSONL files hold one JSON object per line with the same field names.
+ */
+public class UserRecordReader implements Closeable {
+
+    /**
+     * A row to import, with the line it was read from. A line that cannot be parsed gives
+     * a record with an error and no fields, so the caller can report it and go on.
+     */
+    public static final class Record {
+        private final long lineNumber;
+        private final String text;
+        private final String username;
+        private final String email;
+        private final String password;
+        private final String role;
+        private final String error;
+
+        public Record(long lineNumber, String text, String username, String email, String password, String role) {
+            this(lineNumber, text, username, email, password, role, null);
+        }
+
+        private Record(long lineNumber, String text, String username, String email, String password, String role,
+                       String error) {
+            this.lineNumber = lineNumber;
+            this.text = text;
+            this.username = username;
+            this.email = email;
+            this.password = password;
+            this.role = role;
+            this.error = error;
+        }
+
+        static Record invalid(long lineNumber, String text, String error) {
+            return new Record(lineNumber, text, null, null, null, null, error);
+        }
+
+        public long getLineNumber() { return lineNumber; }
+        /** The line as read from the file */
+        public String getText() { return text; }
+        public String getUsername() { return username; }
+        public String getEmail() { return email; }
+        public String getPassword() { return password; }
+        public String getRole() { return role; }
+        /** Why the line could not be parsed, or null */
+        public String getError() { return error; }
+    }
+
+    public enum Format {
+        CSV, JSONL;
+
+        /**
+         * Guess the format from the file extension, defaulting to CSV
+         */
+        public static Format fromFileName(String fileName) {
+            String lower = fileName.toLowerCase(Locale.ROOT);
+            return lower.endsWith(".jsonl") || lower.endsWith(".ndjson") ? JSONL : CSV;
+        }
+    }
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final BufferedReader reader;
+    private final Format format;
+    private String header;
+    private long lineNumber;
+    private int usernameColumn = -1;
+    private int emailColumn = -1;
+    private int passwordColumn = -1;
+    private int roleColumn = -1;
+
+    public UserRecordReader(Path file, Format format) throws IOException {
+        this(Files.newBufferedReader(file, StandardCharsets.UTF_8), format);
+    }
+
+    public UserRecordReader(BufferedReader reader, Format format) throws IOException {
+        this.reader = reader;
+        this.format = format;
+        if (format == Format.CSV) {
+            readHeader();
+        }
+    }
+
+    /**
+     * Next record, or null at end of input. Blank lines are skipped.
+     */
+    public Record next() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (!line.trim().isEmpty()) {
+                return format == Format.CSV ? parseCsv(line) : parseJson(line);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The CSV header line, or null for JSONL
+     */
+    public String getHeader() {
+        return header;
+    }
+
+    /**
+     * Number of the last line read, counting the CSV header
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void readHeader() throws IOException {
+        header = reader.readLine();
+        if (header == null) {
+            return;
+        }
+        lineNumber++;
+        List<String> columns = splitCsv(header);
+        for (int i = 0; i < columns.size(); i++) {
+            switch (columns.get(i).trim().toLowerCase(Locale.ROOT)) {
+                case "username": usernameColumn = i; break;
+                case "email": emailColumn = i; break;
+                case "password": passwordColumn = i; break;
+                case "role": roleColumn = i; break;
+                default: break;
+            }
+        }
+        if (usernameColumn < 0 || emailColumn < 0 || passwordColumn < 0) {
+            throw new IOException("CSV header must contain username, email and password columns: " + header);
+        }
+    }
+
+    private Record parseCsv(String line) {
+        List<String> fields = splitCsv(line);
+        return new Record(lineNumber, line,
+            field(fields, usernameColumn),
+            field(fields, emailColumn),
+            field(fields, passwordColumn),
+            field(fields, roleColumn));
+    }
+
+    private Record parseJson(String line) {
+        JsonNode node;
+        try {
+            node = MAPPER.readTree(line);
+        } catch (JsonProcessingException e) {
+            return Record.invalid(lineNumber, line, "invalid JSON: " + e.getOriginalMessage());
+        }
+        if (!node.isObject()) {
+            return Record.invalid(lineNumber, line, "not a JSON object");
+        }
+        return new Record(lineNumber, line,
+            node.path("username").asText(null),
+            node.path("email").asText(null),
+            node.path("password").asText(null),
+            node.path("role").asText(null));
+    }
+
+    private static String field(List<String> fields, int column) {
+        if (column < 0 || column >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(column).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Split one CSV line, honouring double-quoted fields and doubled quotes inside them
+     */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,282 @@
+package com.newswebsite.client.bulk;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.newswebsite.client.soap.generated.User;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Writes users one at a time through a single buffered stream.
+ */
+public interface UserRecordWriter extends Closeable {
+
+    int BUFFER_SIZE = 64 * 1024;
+
+    enum Format {
+        CSV, TSV, JSONL, BINARY;
+
+        /**
+         * Guess the format from the file extension, defaulting to CSV
+         */
+        public static Format fromFileName(String fileName) {
+            String lower = fileName.toLowerCase(Locale.ROOT);
+            if (lower.endsWith(".jsonl") || lower.endsWith(".ndjson")) {
+                return JSONL;
+            }
+            if (lower.endsWith(".tsv")) {
+                return TSV;
+            }
+            if (lower.endsWith(".bin")) {
+                return BINARY;
+            }
+            return CSV;
+        }
+    }
+
+    void write(User user) throws IOException;
+
+    void flush() throws IOException;
+
+    /**
+     * Mark the output complete and flush it: call once after the last user, and only if every
+     * user was written. {@code close()} only releases the stream, so an export that failed
+     * halfway never looks complete.
+     */
+    default void finish() throws IOException {
+        flush();
+    }
+
+    static UserRecordWriter create(Format format, OutputStream out) throws IOException {
+        switch (format) {
+            case JSONL:
+                return new JsonLinesWriter(out);
+            case TSV:
+                return new TsvWriter(out);
+            case BINARY:
+                return new BinaryWriter(out);
+            case CSV:
+            default:
+                return new CsvWriter(out);
+        }
+    }
+
+    /**
+     * CSV with a header line; fields containing separators or quotes are quoted
+     */
+    final class CsvWriter implements UserRecordWriter {
+        private final Writer writer;
+
+        CsvWriter(OutputStream out) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+            writer.write("id,username,email,role,createdAt,updatedAt\n");
+        }
+
+        @Override
+        public void write(User user) throws IOException {
+            writeField(user.getId());
+            writer.write(',');
+            writeField(user.getUsername());
+            writer.write(',');
+            writeField(user.getEmail());
+            writer.write(',');
+            writeField(user.getRole());
+            writer.write(',');
+            writeField(user.getCreatedAt());
+            writer.write(',');
+            writeField(user.getUpdatedAt());
+            writer.write('\n');
+        }
+
+        private void writeField(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+
+    /**
+     * Tab-separated values with a header line; tabs, line breaks and backslashes in a field
+     * are written as {@code \t}, {@code \n}, {@code \r} and {@code \\}, so every user is one line
+     */
+    final class TsvWriter implements UserRecordWriter {
+        private final Writer writer;
+
+        TsvWriter(OutputStream out) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+            writer.write("id\tusername\temail\trole\tcreatedAt\tupdatedAt\n");
+        }
+
+        @Override
+        public void write(User user) throws IOException {
+            writeField(user.getId());
+            writer.write('\t');
+            writeField(user.getUsername());
+            writer.write('\t');
+            writeField(user.getEmail());
+            writer.write('\t');
+            writeField(user.getRole());
+            writer.write('\t');
+            writeField(user.getCreatedAt());
+            writer.write('\t');
+            writeField(user.getUpdatedAt());
+            writer.write('\n');
+        }
+
+        private void writeField(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf('\t') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0 && value.indexOf('\\') < 0) {
+                writer.write(value);
+                return;
+            }
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '\t':
+                        writer.write("\\t");
+                        break;
+                    case '\n':
+                        writer.write("\\n");
+                        break;
+                    case '\r':
+                        writer.write("\\r");
+                        break;
+                    case '\\':
+                        writer.write("\\\\");
+                        break;
+                    default:
+                        writer.write(c);
+                }
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+
+    /**
+     * One JSON object per line
+     */
+    final class JsonLinesWriter implements UserRecordWriter {
+        private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+        private final JsonGenerator generator;
+
+        JsonLinesWriter(OutputStream out) throws IOException {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+            this.generator = JSON_FACTORY.createGenerator(writer);
+            // The line break separates records; no space before each one
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(User user) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("id", user.getId());
+            generator.writeStringField("username", user.getUsername());
+            generator.writeStringField("email", user.getEmail());
+            generator.writeStringField("role", user.getRole());
+            generator.writeStringField("createdAt", user.getCreatedAt());
+            generator.writeStringField("updatedAt", user.getUpdatedAt());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    /**
+     * Compact binary layout: the "NWU1" magic, then for each user a 1 marker byte followed by
+     * six nullable modified-UTF-8 strings (presence byte, then writeUTF), and a final 0 byte
+     * written by {@link #finish()}; a file without it is truncated
+     */
+    final class BinaryWriter implements UserRecordWriter {
+        static final byte[] MAGIC = {'N', 'W', 'U', '1'};
+
+        private final DataOutputStream out;
+
+        BinaryWriter(OutputStream out) throws IOException {
+            this.out = new DataOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+            this.out.write(MAGIC);
+        }
+
+        @Override
+        public void write(User user) throws IOException {
+            out.writeByte(1);
+            writeString(user.getId());
+            writeString(user.getUsername());
+            writeString(user.getEmail());
+            writeString(user.getRole());
+            writeString(user.getCreatedAt());
+            writeString(user.getUpdatedAt());
+        }
+
+        private void writeString(String value) throws IOException {
+            if (value == null) {
+                out.writeBoolean(false);
+            } else {
+                out.writeBoolean(true);
+                out.writeUTF(value);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            out.writeByte(0);
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+}
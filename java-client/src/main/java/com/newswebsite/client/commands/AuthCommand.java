@@ -0,0 +1,52 @@
+package com.newswebsite.client.commands;
+
+import com.newswebsite.client.gui.SoapClientService;
+import com.newswebsite.client.soap.SoapClientConfig;
+import picocli.CommandLine;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Spec;
+
+/**
+ * {@code soap auth}: obtain a token for the other one-shot commands
+ */
+@Command(name = "auth", mixinStandardHelpOptions = true, description = "Authentication")
+public class AuthCommand implements Runnable {
+
+    @Spec
+    private CommandSpec spec;
+
+    private final SoapClientConfig config;
+
+    public AuthCommand(SoapClientConfig config) {
+        this.config = config;
+    }
+
+    @Override
+    public void run() {
+        throw new CommandLine.ParameterException(spec.commandLine(), "Missing subcommand: login");
+    }
+
+    /**
+     * Prints only the token on stdout, e.g. {@code TOKEN=$(news-client soap auth login -u admin -p secret)}
+     */
+    @Command(name = "login", mixinStandardHelpOptions = true, description = "Log in and print the token")
+    int login(
+        @Option(names = {"-u", "--username"}, required = true, description = "Username") String username,
+        @Option(names = {"-p", "--password"}, required = true, interactive = true, arity = "0..1",
+            description = "Password (prompted when given without a value)") String password,
+        @Option(names = "--service-url", description = "SOAP service URL (default: from config.properties)") String serviceUrl) {
+        SoapClientService client = UsersCommand.connect(config, serviceUrl);
+        if (client == null) {
+            return UsersCommand.EXIT_UNAVAILABLE;
+        }
+        SoapClientService.UserResult result = client.authenticateForGUI(username, password);
+        if (!result.isSuccess()) {
+            System.err.println("Authentication failed: " + result.getError());
+            return UsersCommand.EXIT_REFUSED;
+        }
+        System.out.println(client.getAuthToken());
+        return 0;
+    }
+}
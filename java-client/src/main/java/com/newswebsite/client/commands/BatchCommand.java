@@ -0,0 +1,77 @@
+package com.newswebsite.client.commands;
+
+import com.newswebsite.client.bulk.BatchScriptRunner;
+import com.newswebsite.client.gui.SoapClientService;
+import com.newswebsite.client.soap.SoapClientConfig;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.Callable;
+
+/**
+ * {@code batch}: runs a list/add/update/delete script without the interactive menu
+ */
+@Command(name = "batch", mixinStandardHelpOptions = true,
+    description = "Run a script of list/add/update/delete commands, several at a time, and print a summary")
+public class BatchCommand implements Callable<Integer> {
+
+    @Option(names = {"-u", "--username"}, required = true, description = "Admin username")
+    private String username;
+
+    @Option(names = {"-p", "--password"}, required = true, interactive = true, arity = "0..1",
+        description = "Admin password (prompted when given without a value)")
+    private String password;
+
+    @Option(names = "--service-url", description = "SOAP service URL (default: from config.properties)")
+    private String serviceUrl;
+
+    @Option(names = {"-f", "--file"}, defaultValue = "-", description = "Script file, - for stdin (default: ${DEFAULT-VALUE})")
+    private String file;
+
+    @Option(names = {"-c", "--concurrency"}, description = "Commands in flight (default: soap.pool.size)")
+    private Integer concurrency;
+
+    private final SoapClientConfig config;
+
+    public BatchCommand(SoapClientConfig config) {
+        this.config = config;
+    }
+
+    @Override
+    public Integer call() throws Exception {
+        SoapClientConfig clientConfig = config.copy();
+        if (serviceUrl != null) {
+            clientConfig.withServiceUrl(serviceUrl);
+        }
+        int parallelism = concurrency != null ? concurrency : clientConfig.getPoolSize();
+        // Enough ports for every command in flight
+        clientConfig.withPoolSize(Math.max(clientConfig.getPoolSize(), parallelism));
+
+        SoapClientService client = new SoapClientService(clientConfig);
+        if (!client.isServiceAvailable()) {
+            System.err.println("SOAP service not available at " + clientConfig.getServiceUrl());
+            return UsersCommand.EXIT_UNAVAILABLE;
+        }
+        // Standard output carries only the script results
+        SoapClientService.UserResult login = client.authenticateForGUI(username, password);
+        if (!login.isSuccess()) {
+            System.err.println("Authentication failed: " + login.getError());
+            return UsersCommand.EXIT_REFUSED;
+        }
+
+        BatchScriptRunner runner = new BatchScriptRunner(client, parallelism, System.out);
+        BatchScriptRunner.Summary summary;
+        try (BufferedReader script = "-".equals(file)
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Paths.get(file), StandardCharsets.UTF_8)) {
+            summary = runner.run(script);
+        }
+        System.out.println("Batch finished: " + summary);
+        return summary.getFailed() == 0 ? 0 : 1;
+    }
+}
@@ -0,0 +1,73 @@
+package com.newswebsite.client.commands;
+
+import com.newswebsite.client.soap.SoapClientConfig;
+import com.newswebsite.client.stub.StubSoapServer;
+import picocli.CommandLine;
+import picocli.CommandLine.Command;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Callable;
+
+/**
+ * {@code cds-training}: runs every one-shot {@code soap} command once against an in-process stub
+ * service, so that a JVM started with {@code -XX:DumpLoadedClassList} records the classes a real
+ * run loads (picocli, JAX-WS, JAXB, the generated types). Used by the {@code appcds} Maven profile.
+ */
+@Command(name = "cds-training", hidden = true,
+    description = "Exercise the one-shot soap commands against a stub service (AppCDS class list)")
+public class CdsTrainingCommand implements Callable<Integer> {
+
+    private static final String ADMIN = "admin";
+    private static final String PASSWORD = "cds-training";
+
+    @Override
+    public Integer call() throws Exception {
+        try (StubSoapServer server = StubSoapServer.start(0, 100, ADMIN, PASSWORD)) {
+            String url = server.getServiceUrl();
+            CommandLine soap = SoapCommand.create(SoapClientConfig.defaults());
+
+            String token = run(soap, "auth", "login", "-u", ADMIN, "-p", PASSWORD, "--service-url", url).trim();
+            String[][] calls = {
+                {"users", "list", "--limit", "5"},
+                {"users", "list", "--limit", "5", "--format", "jsonl"},
+                {"users", "list", "--limit", "5", "--format", "csv"},
+                {"users", "get", "seed-1"},
+                {"users", "add", "--username", "cds", "--email", "cds@example.com", "--password", PASSWORD},
+                {"users", "update", "seed-2", "--email", "cds-updated@example.com"},
+                {"users", "delete", "seed-3"}
+            };
+            for (String[] call : calls) {
+                String[] args = new String[call.length + 4];
+                System.arraycopy(call, 0, args, 0, call.length);
+                args[call.length] = "--token";
+                args[call.length + 1] = token;
+                args[call.length + 2] = "--service-url";
+                args[call.length + 3] = url;
+                run(soap, args);
+            }
+        }
+        System.err.println("cds-training: all soap commands completed");
+        return 0;
+    }
+
+    /**
+     * Execute one command with stdout captured; fails the training run if it does not succeed
+     */
+    private static String run(CommandLine soap, String... args) {
+        PrintStream stdout = System.out;
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        int exitCode;
+        try {
+            System.setOut(new PrintStream(captured, true, StandardCharsets.UTF_8));
+            exitCode = soap.execute(args);
+        } finally {
+            System.setOut(stdout);
+        }
+        if (exitCode != 0) {
+            throw new IllegalStateException("soap " + String.join(" ", args) + " exited with " + exitCode);
+        }
+        return captured.toString(StandardCharsets.UTF_8);
+    }
+}
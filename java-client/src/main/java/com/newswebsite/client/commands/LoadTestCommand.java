@@ -0,0 +1,102 @@
+package com.newswebsite.client.commands;
+
+import com.newswebsite.client.gui.SoapClientService;
+import com.newswebsite.client.loadtest.LoadGenerator;
+import com.newswebsite.client.loadtest.OperationMix;
+import com.newswebsite.client.soap.SoapClientConfig;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+import java.nio.file.Path;
+import java.util.concurrent.Callable;
+
+/**
+ * {@code load-test}: measures the admin operations per second the SOAP user service sustains.
+ *
+ * Client retries and the circuit breaker are turned off so that every failure shows up
+ * in the report instead of being retried or short-circuited.
+ */
+@Command(name = "load-test", mixinStandardHelpOptions = true,
+    description = "Drive a mix of SOAP user operations at a target rate and report throughput and latency percentiles")
+public class LoadTestCommand implements Callable<Integer> {
+
+    @Option(names = {"-u", "--username"}, required = true, description = "Admin username")
+    private String username;
+
+    @Option(names = {"-p", "--password"}, required = true, interactive = true, arity = "0..1",
+        description = "Admin password (prompted when given without a value)")
+    private String password;
+
+    @Option(names = "--service-url", description = "SOAP service URL (default: from config.properties)")
+    private String serviceUrl;
+
+    @Option(names = {"-s", "--sessions"}, defaultValue = "8", description = "Concurrent sessions (default: ${DEFAULT-VALUE})")
+    private int sessions;
+
+    @Option(names = {"-r", "--rate"}, defaultValue = "100",
+        description = "Target calls per second across all sessions, 0 for back-to-back calls (default: ${DEFAULT-VALUE})")
+    private double rate;
+
+    @Option(names = {"-d", "--duration"}, defaultValue = "60", description = "Measured seconds (default: ${DEFAULT-VALUE})")
+    private int durationSeconds;
+
+    @Option(names = {"-w", "--warmup"}, defaultValue = "10",
+        description = "Seconds of load before measuring (default: ${DEFAULT-VALUE})")
+    private int warmupSeconds;
+
+    @Option(names = "--mix", defaultValue = OperationMix.DEFAULT, description = "Operation weights (default: ${DEFAULT-VALUE})")
+    private String mix;
+
+    @Option(names = "--page-size", defaultValue = "20", description = "getUsers page size (default: ${DEFAULT-VALUE})")
+    private int pageSize;
+
+    @Option(names = "--keep-users", description = "Do not delete the users created by the run")
+    private boolean keepUsers;
+
+    @Option(names = "--hgrm-dir", description = "Also write each operation's full HDR percentile distribution (.hgrm) here")
+    private Path histogramDirectory;
+
+    private final SoapClientConfig config;
+
+    public LoadTestCommand(SoapClientConfig config) {
+        this.config = config;
+    }
+
+    @Override
+    public Integer call() throws Exception {
+        SoapClientConfig clientConfig = config.copy();
+        if (serviceUrl != null) {
+            clientConfig.withServiceUrl(serviceUrl);
+        }
+        // One port per session, and no client-side smoothing of failures or shared calls
+        clientConfig.withPoolSize(sessions)
+            .withRetry(1, 0, 0)
+            .withCircuitBreaker(Integer.MAX_VALUE, 0)
+            .withCoalesceReads(false);
+        OperationMix operationMix = OperationMix.parse(mix);
+
+        SoapClientService client = new SoapClientService(clientConfig);
+        client.setCache(null);
+        client.setSearchIndex(null);
+        if (!client.isServiceAvailable()) {
+            System.err.println("SOAP service not available at " + clientConfig.getServiceUrl());
+            return 2;
+        }
+        if (!client.authenticate(username, password)) {
+            return 2;
+        }
+
+        System.out.printf("Load test against %s: %d sessions, %s, mix %s, %d s warm-up + %d s%n",
+            clientConfig.getServiceUrl(), sessions, rate > 0 ? rate + " calls/s" : "unthrottled", operationMix,
+            warmupSeconds, durationSeconds);
+        LoadGenerator generator = new LoadGenerator(client, operationMix, sessions, rate, pageSize, keepUsers);
+        LoadGenerator.Report report = generator.run(warmupSeconds, durationSeconds, System.out);
+        System.out.println();
+        System.out.print(report.format());
+        if (histogramDirectory != null) {
+            report.writeDistributions(histogramDirectory);
+            System.out.println("Percentile distributions written to " + histogramDirectory);
+        }
+        return report.getErrors() == 0 ? 0 : 1;
+    }
+}
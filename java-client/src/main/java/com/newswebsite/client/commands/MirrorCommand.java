@@ -0,0 +1,59 @@
+package com.newswebsite.client.commands;
+
+import com.newswebsite.client.rest.ArticleMirror;
+import com.newswebsite.client.rest.RestClient;
+import com.newswebsite.client.rest.RestClientException;
+import picocli.CommandLine;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Spec;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * {@code mirror}: maintain a local copy of the REST article catalogue for offline readers
+ */
+@Command(name = "mirror", mixinStandardHelpOptions = true, description = "Local article mirror")
+public class MirrorCommand implements Runnable {
+
+    @Spec
+    private CommandSpec spec;
+
+    @Override
+    public void run() {
+        throw new CommandLine.ParameterException(spec.commandLine(), "Missing subcommand: sync");
+    }
+
+    /**
+     * Prints the sync summary on stdout; exit code 1 if the service refused a request or the
+     * mirror cannot be opened, 2 if the sync could not complete
+     */
+    @Command(name = "sync", mixinStandardHelpOptions = true, description = "Fetch new and changed articles into the mirror")
+    int sync(
+        @Option(names = "--dir", required = true, paramLabel = "DIR", description = "Mirror directory, created if needed") Path directory,
+        @Option(names = "--full", description = "Rescan every page to pick up edits to older articles") boolean full,
+        @Option(names = "--rest-url", defaultValue = RestClient.DEFAULT_BASE_URL, paramLabel = "URL",
+            description = "REST service URL (default: ${DEFAULT-VALUE})") String restUrl) {
+        ArticleMirror mirror;
+        try {
+            mirror = new ArticleMirror(directory);
+        } catch (IOException e) {
+            System.err.println("Cannot open the mirror in " + directory + ": " + e.getMessage());
+            return UsersCommand.EXIT_REFUSED;
+        }
+        try (ArticleMirror opened = mirror) {
+            ArticleMirror.SyncResult result = opened.sync(new RestClient(restUrl), full);
+            System.out.println(result + "; " + opened.size() + " articles mirrored, newest from "
+                + opened.getWatermark());
+            return 0;
+        } catch (RestClientException e) {
+            System.err.println("Sync failed: " + e.getMessage());
+            return UsersCommand.EXIT_REFUSED;
+        } catch (IOException e) {
+            System.err.println("Sync failed against " + restUrl + ": " + e.getMessage());
+            return UsersCommand.EXIT_UNAVAILABLE;
+        }
+    }
+}
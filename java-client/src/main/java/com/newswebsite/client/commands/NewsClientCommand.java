@@ -0,0 +1,22 @@
+package com.newswebsite.client.commands;
+
+import picocli.CommandLine;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Spec;
+
+/**
+ * Root of the command-line mode; without arguments the application starts the interactive session instead
+ */
+@Command(name = "news-client", mixinStandardHelpOptions = true, version = "news-client 1.0.0",
+    description = "News Website client")
+public class NewsClientCommand implements Runnable {
+
+    @Spec
+    private CommandSpec spec;
+
+    @Override
+    public void run() {
+        throw new CommandLine.ParameterException(spec.commandLine(), "Missing subcommand");
+    }
+}
@@ -0,0 +1,37 @@
+package com.newswebsite.client.commands;
+
+import com.newswebsite.client.soap.SoapClientConfig;
+import picocli.CommandLine;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
+import picocli.CommandLine.Spec;
+
+/**
+ * {@code soap}: one-shot calls to the SOAP user service, one operation per process.
+ *
+ * Meant for scripts and cron: the bundled WSDL is always used, metrics (and their JMX
+ * registration) are off and a single port is created, so a run only pays for one call.
+ * Results go to stdout and messages to stderr. Exit codes: 0 success, 1 the service
+ * refused the operation, 2 the service could not be reached.
+ */
+@Command(name = "soap", mixinStandardHelpOptions = true, description = "One-shot SOAP user service operations")
+public class SoapCommand implements Runnable {
+
+    @Spec
+    private CommandSpec spec;
+
+    /**
+     * The {@code soap} command with its {@code auth} and {@code users} subcommands
+     */
+    public static CommandLine create(SoapClientConfig config) {
+        return new CommandLine(new SoapCommand())
+            .addSubcommand(new AuthCommand(config))
+            .addSubcommand(new UsersCommand(config))
+            .setCaseInsensitiveEnumValuesAllowed(true);
+    }
+
+    @Override
+    public void run() {
+        throw new CommandLine.ParameterException(spec.commandLine(), "Missing subcommand: auth or users");
+    }
+}
@@ -0,0 +1,68 @@
+package com.newswebsite.client.commands;
+
+import com.newswebsite.client.stub.InMemoryUserStore;
+import com.newswebsite.client.stub.StubSoapServer;
+import com.newswebsite.client.stub.StubUserService;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * {@code stub-server}: runs the in-memory SOAP user service on the loopback interface until interrupted
+ */
+@Command(name = "stub-server", mixinStandardHelpOptions = true,
+    description = "Serve an in-memory SOAP user service on 127.0.0.1 for offline performance and integration tests")
+public class StubServerCommand implements Callable<Integer> {
+
+    @Option(names = "--port", defaultValue = "8080", description = "Port, 0 for any free port (default: ${DEFAULT-VALUE})")
+    private int port;
+
+    @Option(names = "--users", defaultValue = "10000", description = "Seeded users (default: ${DEFAULT-VALUE})")
+    private int users;
+
+    @Option(names = "--admin-username", defaultValue = "admin", description = "Admin login (default: ${DEFAULT-VALUE})")
+    private String adminUsername;
+
+    @Option(names = "--admin-password", defaultValue = "password", description = "Admin password (default: ${DEFAULT-VALUE})")
+    private String adminPassword;
+
+    @Option(names = "--threads", defaultValue = "" + StubSoapServer.DEFAULT_THREADS,
+        description = "Server threads (default: ${DEFAULT-VALUE})")
+    private int threads;
+
+    @Option(names = "--latency-ms", defaultValue = "0", description = "Added latency per call")
+    private long latencyMillis;
+
+    @Option(names = "--jitter-ms", defaultValue = "0", description = "Random extra latency, up to this value")
+    private long jitterMillis;
+
+    @Option(names = "--transport-error-rate", defaultValue = "0", description = "Share of calls answered with HTTP 503 (0 to 1)")
+    private double transportErrorRate;
+
+    @Option(names = "--failure-rate", defaultValue = "0",
+        description = "Share of calls answered with success=false, 'Internal server error' (0 to 1)")
+    private double failureRate;
+
+    @Override
+    public Integer call() throws Exception {
+        InMemoryUserStore store = new InMemoryUserStore();
+        store.seed(users);
+        StubSoapServer server = StubSoapServer.start(port,
+            new StubUserService(store, adminUsername, adminPassword), threads);
+        server.setLatency(latencyMillis, jitterMillis);
+        server.setTransportErrorRate(transportErrorRate);
+        server.setFailureRate(failureRate);
+        System.out.printf("Stub SOAP service on %s with %,d users; log in as %s. Ctrl-C to stop.%n",
+            server.getServiceUrl(), store.size(), adminUsername);
+
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            stopped.countDown();
+        }, "stub-server-shutdown"));
+        stopped.await();
+        return 0;
+    }
+}
@@ -0,0 +1,138 @@
+package com.newswebsite.client.gui;
+
+import com.newswebsite.client.soap.generated.User;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Parcours de toutes les pages de getUsers avec plusieurs requêtes en parallèle
+ *
+ * La première page donne le total ; les pages suivantes sont demandées en parallèle,
+ * au plus fanOut à la fois, et restituées dans l'ordre. Seules les pages en cours
+ * de chargement sont en mémoire.
+ */
+public class ParallelUserScan implements Iterator<SoapClientService.UsersResult>, AutoCloseable {
+
+    private final SoapClientService soapClient;
+    private final int pageSize;
+    private final String role;
+    private final int fanOut;
+    private final Executor executor;
+    private final Deque<CompletableFuture<SoapClientService.UsersResult>> window = new ArrayDeque<>();
+
+    private SoapClientService.UsersResult firstPage;
+    private boolean started;
+    private int total;
+    private int pageCount;
+    private int nextPageToSubmit;
+    private boolean exhausted;
+
+    ParallelUserScan(SoapClientService soapClient, int pageSize, String role, int fanOut, Executor executor) {
+        if (pageSize < 1 || fanOut < 1) {
+            throw new IllegalArgumentException("pageSize et fanOut doivent être au moins égaux à 1");
+        }
+        this.soapClient = soapClient;
+        this.pageSize = pageSize;
+        this.role = role;
+        this.fanOut = fanOut;
+        this.executor = executor;
+    }
+
+    /**
+     * Total annoncé par la première page
+     */
+    public int getTotal() {
+        start();
+        return total;
+    }
+
+    @Override
+    public boolean hasNext() {
+        start();
+        return !exhausted && (firstPage != null || !window.isEmpty());
+    }
+
+    /**
+     * Page suivante dans l'ordre ; une page en erreur lève IllegalStateException
+     */
+    @Override
+    public SoapClientService.UsersResult next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        SoapClientService.UsersResult page;
+        if (firstPage != null) {
+            page = firstPage;
+            firstPage = null;
+        } else {
+            page = window.poll().join();
+            submitNextPage();
+        }
+        if (!page.isSuccess()) {
+            close();
+            throw new IllegalStateException(page.getError());
+        }
+        if (page.getUsers().isEmpty()) {
+            // L'annuaire a rétréci pendant le parcours
+            close();
+        }
+        return page;
+    }
+
+    /**
+     * Utilisateurs de toutes les pages, dans l'ordre
+     */
+    public Stream<User> stream() {
+        Spliterator<SoapClientService.UsersResult> pages =
+            Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(pages, false)
+            .flatMap(page -> page.getUsers().stream())
+            .onClose(this::close);
+    }
+
+    /**
+     * Annule les pages encore en attente
+     */
+    @Override
+    public void close() {
+        exhausted = true;
+        CompletableFuture<SoapClientService.UsersResult> pending;
+        while ((pending = window.poll()) != null) {
+            pending.cancel(false);
+        }
+    }
+
+    private void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        firstPage = soapClient.getUsersDirect(1, pageSize, role);
+        if (!firstPage.isSuccess()) {
+            return;
+        }
+        total = firstPage.getTotal();
+        pageCount = (int) ((total + (long) pageSize - 1) / pageSize);
+        nextPageToSubmit = 2;
+        for (int i = 0; i < fanOut; i++) {
+            submitNextPage();
+        }
+    }
+
+    private void submitNextPage() {
+        if (exhausted || nextPageToSubmit > pageCount) {
+            return;
+        }
+        int page = nextPageToSubmit++;
+        window.add(CompletableFuture.supplyAsync(() -> soapClient.getUsersDirect(page, pageSize, role), executor));
+    }
+}
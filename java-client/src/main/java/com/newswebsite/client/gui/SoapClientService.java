@@ -1,11 +1,27 @@
 package com.newswebsite.client.gui;
 
 import com.newswebsite.client.soap.SoapClient;
+import com.newswebsite.client.soap.SoapCallExecutors;
+import com.newswebsite.client.soap.SoapClientConfig;
+import com.newswebsite.client.soap.UserServicePortPool;
 import com.newswebsite.client.soap.generated.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Service SOAP adapté pour l'interface graphique
@@ -15,6 +31,50 @@ public class SoapClientService extends SoapClient {
     
     private static final Logger logger = LoggerFactory.getLogger(SoapClientService.class);
     
+    private volatile Executor asyncExecutor;
+    private volatile UserCache cache;
+    private volatile UserSearchIndex searchIndex;
+    
+    /**
+     * Préchargement des pages voisines après l'affichage d'une page
+     */
+    public enum PrefetchMode {
+        /** Aucun préchargement */
+        OFF,
+        /** Page suivante uniquement */
+        NEXT,
+        /** Pages suivante et précédente */
+        ADJACENT
+    }
+    
+    public static final int DEFAULT_PREFETCH_BUDGET_USERS = 500;
+    
+    private volatile PrefetchMode prefetchMode = PrefetchMode.OFF;
+    private volatile int prefetchBudgetUsers = DEFAULT_PREFETCH_BUDGET_USERS;
+    private final Map<UserCache.PageKey, Integer> prefetchedPages = new HashMap<>();
+    private final Set<UserCache.PageKey> prefetchesInFlight = new HashSet<>();
+    private int prefetchedUsers;
+    
+    public SoapClientService() {
+        super();
+    }
+    
+    public SoapClientService(SoapClientConfig config) {
+        super(config);
+    }
+    
+    public SoapClientService(SoapClientConfig config, Executor asyncExecutor) {
+        super(config);
+        this.asyncExecutor = asyncExecutor;
+    }
+    
+    /**
+     * Client sur un pool de ports existant (bouchons en mémoire, benchmarks)
+     */
+    public SoapClientService(SoapClientConfig config, UserServicePortPool portPool) {
+        super(config, portPool);
+    }
+    
     /**
      * Classe pour encapsuler la réponse de getUsersForGUI
      */
@@ -78,6 +138,34 @@ public class SoapClientService extends SoapClient {
         public String getError() { return error; }
     }
     
+    /**
+     * Authentifie sans rien écrire sur la console ; en cas de succès le jeton est conservé
+     * et le résultat contient l'utilisateur connecté
+     */
+    public UserResult authenticateForGUI(String username, String password) {
+        if (!isServiceAvailable()) {
+            return new UserResult(false, null, "Service SOAP non disponible. Veuillez vous assurer que le serveur est en cours d'exécution.");
+        }
+        
+        try {
+            AuthenticateUserRequest request = new AuthenticateUserRequest();
+            request.setUsername(username);
+            request.setPassword(password);
+            
+            AuthenticateUserResponse response = callService("authenticateUser", port -> port.authenticateUser(request));
+            
+            if (response.isSuccess()) {
+                setAuthToken(response.getToken());
+                return new UserResult(true, response.getUser(), null);
+            } else {
+                return new UserResult(false, null, response.getError());
+            }
+        } catch (Exception e) {
+            logger.error("Erreur lors de l'authentification", e);
+            return new UserResult(false, null, "Erreur: " + e.getMessage());
+        }
+    }
+    
     /**
      * Récupère la liste des utilisateurs pour l'interface graphique
      */
@@ -90,18 +178,118 @@ public class SoapClientService extends SoapClient {
             return new UsersResult(false, null, 0, 0, 0, "Non authentifié. Veuillez vous connecter d'abord.");
         }
         
+        UserCache currentCache = cache;
+        UserCache.PageKey key = new UserCache.PageKey(page, limit, role);
+        if (currentCache != null) {
+            UserCache.CachedPage cached = currentCache.getPage(key);
+            if (cached != null) {
+                releasePrefetch(key);
+                prefetchAround(key, cached.getTotal());
+                return new UsersResult(true, cached.getUsers(), cached.getTotal(), page, limit, null);
+            }
+        }
+        
+        UsersResult result = fetchUsersPage(key, currentCache, searchIndex);
+        if (result.isSuccess()) {
+            prefetchAround(key, result.getTotal());
+        }
+        return result;
+    }
+    
+    /**
+     * Récupère une page sans passer par le cache ni l'index de recherche ni déclencher de
+     * préchargement (exports et parcours complets de l'annuaire, dont la mémoire ne doit
+     * pas dépendre de la taille de l'annuaire)
+     */
+    public UsersResult getUsersDirect(int page, int limit, String role) {
+        if (!isServiceAvailable()) {
+            return new UsersResult(false, null, 0, 0, 0, "Service SOAP non disponible. Veuillez vous assurer que le serveur est en cours d'exécution.");
+        }
+        
+        if (!isAuthenticated()) {
+            return new UsersResult(false, null, 0, 0, 0, "Non authentifié. Veuillez vous connecter d'abord.");
+        }
+        
+        return fetchUsersPage(new UserCache.PageKey(page, limit, role), null, null);
+    }
+    
+    /**
+     * Récupère une page en transmettant chaque utilisateur au consommateur dès son décodage,
+     * sans construire la liste complète (grandes pages). Le résultat ne contient que le total
+     * et la pagination ; ni le cache ni l'index de recherche ne sont utilisés.
+     */
+    public UsersResult streamUsersForGUI(int page, int limit, String role, Consumer<User> consumer) {
+        if (!isServiceAvailable()) {
+            return new UsersResult(false, null, 0, 0, 0, "Service SOAP non disponible. Veuillez vous assurer que le serveur est en cours d'exécution.");
+        }
+        
+        if (!isAuthenticated()) {
+            return new UsersResult(false, null, 0, 0, 0, "Non authentifié. Veuillez vous connecter d'abord.");
+        }
+        
         try {
-            GetUsersRequest request = new GetUsersRequest();
-            request.setToken(getAuthToken());
-            request.setPage(page);
-            request.setLimit(limit);
-            if (role != null && !role.trim().isEmpty()) {
-                request.setRole(role);
+            GetUsersResponse response = streamUsersCall(usersRequest(new UserCache.PageKey(page, limit, role)), consumer);
+            if (response.isSuccess()) {
+                return new UsersResult(true, Collections.emptyList(),
+                    response.getTotal() != null ? response.getTotal() : 0, page, limit, null);
+            } else {
+                return new UsersResult(false, null, 0, 0, 0, response.getError());
             }
-            
-            GetUsersResponse response = userService.getUsers(request);
+        } catch (Exception e) {
+            logger.error("Erreur lors de la lecture en flux des utilisateurs", e);
+            return new UsersResult(false, null, 0, 0, 0, "Erreur: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Parcourt tout l'annuaire en demandant jusqu'à fanOut pages en parallèle ;
+     * les pages sont restituées dans l'ordre
+     */
+    public ParallelUserScan scanUsers(int pageSize, String role, int fanOut) {
+        return new ParallelUserScan(this, pageSize, role, fanOut, getAsyncExecutor());
+    }
+    
+    /**
+     * Récupère tous les utilisateurs en une seule liste ordonnée (chargement parallèle des pages)
+     */
+    public UsersResult getAllUsers(int pageSize, String role, int fanOut) {
+        ParallelUserScan scan = scanUsers(pageSize, role, fanOut);
+        try {
+            List<User> users = new ArrayList<>(Math.max(0, scan.getTotal()));
+            while (scan.hasNext()) {
+                users.addAll(scan.next().getUsers());
+            }
+            return new UsersResult(true, users, scan.getTotal(), 1, users.size(), null);
+        } catch (IllegalStateException e) {
+            return new UsersResult(false, null, 0, 0, 0, e.getMessage());
+        } finally {
+            scan.close();
+        }
+    }
+    
+    /**
+     * Flux ordonné de tous les utilisateurs ; seules fanOut pages sont en mémoire à la fois
+     */
+    public Stream<User> streamAllUsers(int pageSize, String role, int fanOut) {
+        return scanUsers(pageSize, role, fanOut).stream();
+    }
+    
+    private UsersResult fetchUsersPage(UserCache.PageKey key, UserCache currentCache, UserSearchIndex index) {
+        try {
+            // Relevée avant l'envoi : une modification pendant l'appel rend la page périmée
+            long epoch = currentCache != null ? currentCache.getEpoch() : 0;
+            GetUsersRequest request = usersRequest(key);
+            // Les demandes identiques simultanées (rafraîchissements, préchargement) partagent un seul appel
+            GetUsersResponse response = callServiceShared("getUsers", Arrays.asList(request.getToken(), key),
+                port -> port.getUsers(request));
             
             if (response.isSuccess()) {
+                if (currentCache != null) {
+                    currentCache.putPage(key, new UserCache.CachedPage(response.getUsers(), response.getTotal()), epoch);
+                }
+                if (index != null) {
+                    index.addAll(response.getUsers());
+                }
                 return new UsersResult(true, response.getUsers(), response.getTotal(), 
                                      response.getPage(), response.getLimit(), null);
             } else {
@@ -113,6 +301,101 @@ public class SoapClientService extends SoapClient {
         }
     }
     
+    private GetUsersRequest usersRequest(UserCache.PageKey key) {
+        GetUsersRequest request = new GetUsersRequest();
+        request.setToken(getAuthToken());
+        request.setPage(key.getPage());
+        request.setLimit(key.getLimit());
+        if (key.getRole() != null) {
+            request.setRole(key.getRole());
+        }
+        return request;
+    }
+    
+    /**
+     * Précharge en arrière-plan les pages voisines de celle qui vient d'être servie
+     */
+    private void prefetchAround(UserCache.PageKey key, int total) {
+        PrefetchMode mode = prefetchMode;
+        UserCache currentCache = cache;
+        if (mode == PrefetchMode.OFF || currentCache == null) {
+            return;
+        }
+        
+        releaseDistantPrefetches(key, currentCache);
+        if ((long) key.getPage() * key.getLimit() < total) {
+            prefetch(new UserCache.PageKey(key.getPage() + 1, key.getLimit(), key.getRole()), currentCache);
+        }
+        if (mode == PrefetchMode.ADJACENT && key.getPage() > 1) {
+            prefetch(new UserCache.PageKey(key.getPage() - 1, key.getLimit(), key.getRole()), currentCache);
+        }
+    }
+    
+    private void prefetch(UserCache.PageKey key, UserCache currentCache) {
+        if (currentCache.containsPage(key)) {
+            return;
+        }
+        synchronized (prefetchedPages) {
+            if (prefetchesInFlight.contains(key)) {
+                return;
+            }
+            // Réservation dont la page a expiré ou a été invalidée entre-temps
+            Integer stale = prefetchedPages.remove(key);
+            if (stale != null) {
+                prefetchedUsers -= stale;
+            }
+            if (prefetchedUsers + key.getLimit() > prefetchBudgetUsers) {
+                return;
+            }
+            prefetchedPages.put(key, key.getLimit());
+            prefetchedUsers += key.getLimit();
+            prefetchesInFlight.add(key);
+        }
+        
+        getAsyncExecutor().execute(() -> {
+            UsersResult result = fetchUsersPage(key, currentCache, searchIndex);
+            synchronized (prefetchedPages) {
+                prefetchesInFlight.remove(key);
+            }
+            if (!result.isSuccess()) {
+                releasePrefetch(key);
+            }
+        });
+    }
+    
+    /**
+     * Une page préchargée qui a été consultée ne compte plus dans le budget
+     */
+    private void releasePrefetch(UserCache.PageKey key) {
+        synchronized (prefetchedPages) {
+            Integer reserved = prefetchedPages.remove(key);
+            if (reserved != null) {
+                prefetchedUsers -= reserved;
+            }
+        }
+    }
+    
+    /**
+     * Les pages préchargées qui ne sont plus voisines de la page courante sont retirées du cache
+     */
+    private void releaseDistantPrefetches(UserCache.PageKey current, UserCache currentCache) {
+        synchronized (prefetchedPages) {
+            Iterator<Map.Entry<UserCache.PageKey, Integer>> it = prefetchedPages.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<UserCache.PageKey, Integer> entry = it.next();
+                UserCache.PageKey key = entry.getKey();
+                boolean adjacent = key.getLimit() == current.getLimit()
+                    && Objects.equals(key.getRole(), current.getRole())
+                    && Math.abs(key.getPage() - current.getPage()) <= 1;
+                if (!adjacent && !prefetchesInFlight.contains(key)) {
+                    currentCache.removePage(key);
+                    prefetchedUsers -= entry.getValue();
+                    it.remove();
+                }
+            }
+        }
+    }
+    
     /**
      * Récupère un utilisateur par ID pour l'interface graphique
      */
@@ -125,14 +408,31 @@ public class SoapClientService extends SoapClient {
             return new UserResult(false, null, "Non authentifié. Veuillez vous connecter d'abord.");
         }
         
+        UserCache currentCache = cache;
+        if (currentCache != null) {
+            User cached = currentCache.getUser(userId);
+            if (cached != null) {
+                return new UserResult(true, cached, null);
+            }
+        }
+        
         try {
+            long epoch = currentCache != null ? currentCache.getEpoch() : 0;
             GetUserByIdRequest request = new GetUserByIdRequest();
             request.setToken(getAuthToken());
             request.setUserId(userId);
             
-            GetUserByIdResponse response = userService.getUserById(request);
+            GetUserByIdResponse response = callServiceShared("getUserById", Arrays.asList(request.getToken(), userId),
+                port -> port.getUserById(request));
             
             if (response.isSuccess()) {
+                if (currentCache != null) {
+                    currentCache.putUser(response.getUser(), epoch);
+                }
+                UserSearchIndex index = searchIndex;
+                if (index != null) {
+                    index.put(response.getUser());
+                }
                 return new UserResult(true, response.getUser(), null);
             } else {
                 return new UserResult(false, null, response.getError());
@@ -163,9 +463,17 @@ public class SoapClientService extends SoapClient {
             request.setPassword(password);
             request.setRole(role);
             
-            AddUserResponse response = userService.addUser(request);
+            AddUserResponse response = callService("addUser", port -> port.addUser(request));
             
             if (response.isSuccess()) {
+                UserCache currentCache = cache;
+                if (currentCache != null) {
+                    currentCache.userChanged(response.getUser());
+                }
+                UserSearchIndex index = searchIndex;
+                if (index != null) {
+                    index.put(response.getUser());
+                }
                 return new UserResult(true, response.getUser(), null);
             } else {
                 return new UserResult(false, null, response.getError());
@@ -199,9 +507,17 @@ public class SoapClientService extends SoapClient {
             }
             request.setRole(role);
             
-            UpdateUserResponse response = userService.updateUser(request);
+            UpdateUserResponse response = callService("updateUser", port -> port.updateUser(request));
             
             if (response.isSuccess()) {
+                UserCache currentCache = cache;
+                if (currentCache != null) {
+                    currentCache.userChanged(response.getUser());
+                }
+                UserSearchIndex index = searchIndex;
+                if (index != null) {
+                    index.put(response.getUser());
+                }
                 return new UserResult(true, response.getUser(), null);
             } else {
                 return new UserResult(false, null, response.getError());
@@ -229,9 +545,17 @@ public class SoapClientService extends SoapClient {
             request.setToken(getAuthToken());
             request.setUserId(userId);
             
-            DeleteUserResponse response = userService.deleteUser(request);
+            DeleteUserResponse response = callService("deleteUser", port -> port.deleteUser(request));
             
             if (response.isSuccess()) {
+                UserCache currentCache = cache;
+                if (currentCache != null) {
+                    currentCache.userDeleted(userId);
+                }
+                UserSearchIndex index = searchIndex;
+                if (index != null) {
+                    index.remove(userId);
+                }
                 return new DeleteResult(true, null);
             } else {
                 return new DeleteResult(false, response.getError());
@@ -241,4 +565,144 @@ public class SoapClientService extends SoapClient {
             return new DeleteResult(false, "Erreur: " + e.getMessage());
         }
     }
+    
+    /**
+     * Active le cache des pages et des utilisateurs (null, la valeur par défaut, pour le
+     * désactiver) ; seule l'interface graphique l'utilise, les autres clients lisent
+     * toujours l'état courant du service
+     */
+    public void setCache(UserCache cache) {
+        this.cache = cache;
+    }
+    
+    /**
+     * Vide le cache : le prochain chargement interroge le service et voit les modifications
+     * faites par d'autres administrateurs (bouton Actualiser)
+     */
+    public void invalidateCache() {
+        UserCache currentCache = cache;
+        if (currentCache != null) {
+            currentCache.clear();
+        }
+        synchronized (prefetchedPages) {
+            prefetchedPages.clear();
+            prefetchedUsers = 0;
+        }
+    }
+    
+    /**
+     * Cache courant (null s'il n'est pas activé), dont les compteurs hits/misses/évictions permettent de le dimensionner
+     */
+    public UserCache getCache() {
+        return cache;
+    }
+    
+    /**
+     * Active l'index de recherche des utilisateurs chargés (null, la valeur par défaut, pour
+     * le désactiver) ; seule l'interface graphique en a besoin
+     */
+    public void setSearchIndex(UserSearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+    
+    /**
+     * Index de recherche alimenté par les pages affichées ou préchargées, les utilisateurs
+     * consultés et les modifications réussies ; null s'il n'est pas activé
+     */
+    public UserSearchIndex getSearchIndex() {
+        return searchIndex;
+    }
+    
+    /**
+     * Active le préchargement des pages voisines ; les pages préchargées et pas encore
+     * consultées ne peuvent pas dépasser budgetUsers utilisateurs au total
+     */
+    public void setPrefetchMode(PrefetchMode mode, int budgetUsers) {
+        this.prefetchMode = mode;
+        this.prefetchBudgetUsers = budgetUsers;
+    }
+    
+    public PrefetchMode getPrefetchMode() {
+        return prefetchMode;
+    }
+    
+    /**
+     * Déconnexion : le cache et l'index de recherche sont vidés car ils dépendent des droits
+     * de l'utilisateur connecté
+     */
+    @Override
+    public void logout() {
+        invalidateCache();
+        UserSearchIndex index = searchIndex;
+        if (index != null) {
+            index.clear();
+        }
+        super.logout();
+    }
+    
+    /**
+     * Définit l'exécuteur utilisé par les méthodes asynchrones
+     */
+    public void setAsyncExecutor(Executor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+    }
+    
+    /**
+     * Exécuteur des appels asynchrones : threads virtuels si le JDK les supporte, sinon un pool borné
+     */
+    public Executor getAsyncExecutor() {
+        Executor executor = asyncExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                executor = asyncExecutor;
+                if (executor == null) {
+                    executor = SoapCallExecutors.newDefaultExecutor(poolSize);
+                    asyncExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+    
+    /**
+     * Authentifie l'utilisateur de façon asynchrone, sans rien écrire sur la console
+     */
+    public CompletableFuture<UserResult> authenticateAsync(String username, String password) {
+        return CompletableFuture.supplyAsync(() -> authenticateForGUI(username, password), getAsyncExecutor());
+    }
+    
+    /**
+     * Récupère la liste des utilisateurs de façon asynchrone
+     */
+    public CompletableFuture<UsersResult> getUsersAsync(int page, int limit, String role) {
+        return CompletableFuture.supplyAsync(() -> getUsersForGUI(page, limit, role), getAsyncExecutor());
+    }
+    
+    /**
+     * Récupère un utilisateur par ID de façon asynchrone
+     */
+    public CompletableFuture<UserResult> getUserByIdAsync(String userId) {
+        return CompletableFuture.supplyAsync(() -> getUserByIdForGUI(userId), getAsyncExecutor());
+    }
+    
+    /**
+     * Ajoute un utilisateur de façon asynchrone
+     */
+    public CompletableFuture<UserResult> addUserAsync(String username, String email, String password, String role) {
+        return CompletableFuture.supplyAsync(() -> addUserForGUI(username, email, password, role), getAsyncExecutor());
+    }
+    
+    /**
+     * Met à jour un utilisateur de façon asynchrone
+     */
+    public CompletableFuture<UserResult> updateUserAsync(String userId, String username, String email, String password, String role) {
+        return CompletableFuture.supplyAsync(() -> updateUserForGUI(userId, username, email, password, role), getAsyncExecutor());
+    }
+    
+    /**
+     * Supprime un utilisateur de façon asynchrone
+     */
+    public CompletableFuture<DeleteResult> deleteUserAsync(String userId) {
+        return CompletableFuture.supplyAsync(() -> deleteUserForGUI(userId), getAsyncExecutor());
+    }
 }
\ No newline at end of file
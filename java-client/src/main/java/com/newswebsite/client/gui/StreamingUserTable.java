@@ -0,0 +1,245 @@
+package com.newswebsite.client.gui;
+
+import com.newswebsite.client.soap.generated.User;
+import javafx.application.Platform;
+import javafx.beans.value.ChangeListener;
+import javafx.collections.ObservableList;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.IndexedCell;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.TableView;
+import javafx.scene.control.skin.VirtualFlow;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Mode de défilement continu de la table des utilisateurs
+ *
+ * Les pages sont ajoutées à la fin (ou au début) de la liste à mesure que l'utilisateur
+ * fait défiler la table. Seule une fenêtre glissante de pages est conservée : les lignes
+ * qui en sortent sont retirées, ce qui borne la mémoire quelle que soit la taille de l'annuaire.
+ * Pendant que la table affiche autre chose (résultats d'une recherche), le défilement ne
+ * charge plus rien et la position est rétablie au retour. Toutes les méthodes doivent être appelées depuis le thread JavaFX.
+ */
+public class StreamingUserTable {
+
+    public static final int DEFAULT_WINDOW_PAGES = 5;
+
+    private static final double LOAD_THRESHOLD = 0.1;
+
+    private final TableView<User> table;
+    private final ObservableList<User> rows;
+    private final SoapClientService soapClient;
+    private final Consumer<String> statusCallback;
+    private final int windowPages;
+    private final ChangeListener<Number> scrollListener = (obs, oldValue, newValue) -> onScroll(newValue.doubleValue());
+
+    private ScrollBar scrollBar;
+    private boolean enabled;
+    private boolean suspended;
+    private int resumeIndex;
+    private boolean loading;
+    private long generation;
+
+    private int limit;
+    private String role;
+    private int total;
+    private int firstPage;
+    private int lastPage;
+    private int firstPageRows;
+    private int lastPageRows;
+
+    public StreamingUserTable(TableView<User> table, ObservableList<User> rows, SoapClientService soapClient,
+                              Consumer<String> statusCallback) {
+        this(table, rows, soapClient, statusCallback, DEFAULT_WINDOW_PAGES);
+    }
+
+    public StreamingUserTable(TableView<User> table, ObservableList<User> rows, SoapClientService soapClient,
+                              Consumer<String> statusCallback, int windowPages) {
+        this.table = table;
+        this.rows = rows;
+        this.soapClient = soapClient;
+        this.statusCallback = statusCallback;
+        this.windowPages = Math.max(2, windowPages);
+    }
+
+    /**
+     * Active le mode et recharge depuis la première page
+     */
+    public void start(int limit, String role) {
+        attachScrollBar();
+        enabled = true;
+        generation++;
+        loading = false;
+        this.limit = limit;
+        this.role = role;
+        this.total = 0;
+        this.firstPage = 1;
+        this.lastPage = 0;
+        this.firstPageRows = 0;
+        this.lastPageRows = 0;
+        this.resumeIndex = 0;
+        rows.clear();
+        loadPage(1, true);
+    }
+
+    /**
+     * La table n'affiche plus les lignes du mode : le défilement ne charge plus de pages et la
+     * première ligne visible est retenue. À appeler avant de changer les éléments de la table.
+     */
+    public void suspend() {
+        if (suspended) {
+            return;
+        }
+        suspended = true;
+        resumeIndex = firstVisibleIndex();
+    }
+
+    /**
+     * La table affiche de nouveau les lignes du mode : retour à la ligne retenue
+     */
+    public void resume() {
+        if (!suspended) {
+            return;
+        }
+        suspended = false;
+        if (enabled) {
+            table.scrollTo(Math.min(resumeIndex, Math.max(0, rows.size() - 1)));
+        }
+    }
+
+    /**
+     * Désactive le mode ; les réponses en cours sont ignorées
+     */
+    public void stop() {
+        enabled = false;
+        generation++;
+        loading = false;
+        if (scrollBar != null) {
+            scrollBar.valueProperty().removeListener(scrollListener);
+            scrollBar = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    private void attachScrollBar() {
+        if (scrollBar != null) {
+            return;
+        }
+        for (Node node : table.lookupAll(".scroll-bar")) {
+            if (node instanceof ScrollBar && ((ScrollBar) node).getOrientation() == Orientation.VERTICAL) {
+                scrollBar = (ScrollBar) node;
+                scrollBar.valueProperty().addListener(scrollListener);
+                return;
+            }
+        }
+    }
+
+    private void onScroll(double value) {
+        if (!enabled || suspended || loading || scrollBar == null) {
+            return;
+        }
+        double range = scrollBar.getMax() - scrollBar.getMin();
+        if (range <= 0) {
+            return;
+        }
+        double position = (value - scrollBar.getMin()) / range;
+        if (position >= 1 - LOAD_THRESHOLD && (long) lastPage * limit < total) {
+            loadPage(lastPage + 1, true);
+        } else if (position <= LOAD_THRESHOLD && firstPage > 1) {
+            loadPage(firstPage - 1, false);
+        }
+    }
+
+    private void loadPage(int page, boolean append) {
+        loading = true;
+        long requestGeneration = generation;
+        statusCallback.accept("Chargement de la page " + page + "...");
+        soapClient.getUsersAsync(page, limit, role).thenAccept(result -> Platform.runLater(() -> {
+            if (requestGeneration != generation) {
+                return;
+            }
+            loading = false;
+            if (!result.isSuccess()) {
+                statusCallback.accept("Erreur lors du chargement: " + result.getError());
+                return;
+            }
+            total = result.getTotal();
+            if (append) {
+                append(page, result.getUsers());
+            } else {
+                prepend(page, result.getUsers());
+            }
+            statusCallback.accept("Utilisateurs " + ((firstPage - 1) * limit + 1) + " à "
+                + ((firstPage - 1) * limit + rows.size()) + " sur " + total);
+            if (suspended) {
+                // La table affiche d'autres lignes : ni sa position ni sa barre ne concernent ce mode
+                return;
+            }
+            // La barre de défilement n'existe qu'une fois la table affichée avec des lignes
+            attachScrollBar();
+            // Tant que la table n'a pas de barre de défilement, aucun défilement ne déclenchera la suite
+            if (append && (scrollBar == null || !scrollBar.isVisible()) && (long) lastPage * limit < total
+                    && lastPage - firstPage + 1 < windowPages) {
+                loadPage(lastPage + 1, true);
+            }
+        }));
+    }
+
+    private void append(int page, List<User> users) {
+        int firstVisible = firstVisibleIndex();
+        rows.addAll(users);
+        if (lastPage == 0) {
+            firstPageRows = users.size();
+        }
+        lastPage = page;
+        lastPageRows = users.size();
+
+        if (lastPage - firstPage + 1 > windowPages) {
+            int evicted = firstPageRows;
+            rows.remove(0, evicted);
+            firstPage++;
+            firstPageRows = limit;
+            // Garde à l'écran les mêmes lignes malgré les lignes retirées au-dessus
+            if (suspended) {
+                resumeIndex = Math.max(0, resumeIndex - evicted);
+            } else {
+                table.scrollTo(Math.max(0, firstVisible - evicted));
+            }
+        }
+    }
+
+    private void prepend(int page, List<User> users) {
+        int firstVisible = firstVisibleIndex();
+        rows.addAll(0, users);
+        firstPage = page;
+        firstPageRows = users.size();
+
+        if (lastPage - firstPage + 1 > windowPages) {
+            rows.remove(rows.size() - lastPageRows, rows.size());
+            lastPage--;
+            lastPageRows = limit;
+        }
+        if (suspended) {
+            resumeIndex += users.size();
+        } else {
+            table.scrollTo(firstVisible + users.size());
+        }
+    }
+
+    private int firstVisibleIndex() {
+        Node node = table.lookup(".virtual-flow");
+        if (node instanceof VirtualFlow) {
+            IndexedCell<?> cell = ((VirtualFlow<?>) node).getFirstVisibleCell();
+            if (cell != null) {
+                return cell.getIndex();
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,270 @@
+package com.newswebsite.client.gui;
+
+import com.newswebsite.client.soap.generated.User;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Cache mémoire des utilisateurs et des pages de résultats
+ *
+ * Les entrées expirent après un TTL et les moins récemment utilisées sont évincées
+ * au-delà de la taille maximale. Les pages sont indexées par (page, limite, rôle).
+ *
+ * Chaque invalidation fait avancer une époque : une lecture lancée avant une invalidation
+ * et terminée après ne remet pas en cache son résultat, qui peut précéder la modification.
+ */
+public class UserCache {
+
+    public static final long DEFAULT_TTL_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    public static final int DEFAULT_MAX_USERS = 10_000;
+    public static final int DEFAULT_MAX_PAGES = 200;
+
+    /**
+     * Clé d'une page de résultats
+     */
+    public static final class PageKey {
+        private final int page;
+        private final int limit;
+        private final String role;
+
+        public PageKey(int page, int limit, String role) {
+            this.page = page;
+            this.limit = limit;
+            this.role = role == null || role.trim().isEmpty() ? null : role.trim();
+        }
+
+        public int getPage() { return page; }
+        public int getLimit() { return limit; }
+        public String getRole() { return role; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof PageKey)) return false;
+            PageKey other = (PageKey) o;
+            return page == other.page && limit == other.limit && Objects.equals(role, other.role);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(page, limit, role);
+        }
+    }
+
+    /**
+     * Page de résultats mise en cache
+     */
+    public static final class CachedPage {
+        private final List<User> users;
+        private final int total;
+
+        public CachedPage(List<User> users, int total) {
+            this.users = users;
+            this.total = total;
+        }
+
+        public List<User> getUsers() { return users; }
+        public int getTotal() { return total; }
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final long ttlNanos;
+    private final Map<String, Entry<User>> users;
+    private final Map<PageKey, Entry<CachedPage>> pages;
+    /** Expiration des pages en cache, consultable sans toucher à l'ordre LRU de pages */
+    private final Map<PageKey, Long> pageExpiries = new HashMap<>();
+
+    private long epoch;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public UserCache() {
+        this(DEFAULT_TTL_MILLIS, DEFAULT_MAX_USERS, DEFAULT_MAX_PAGES);
+    }
+
+    public UserCache(long ttlMillis, int maxUsers, int maxPages) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.users = new LruMap<>(maxUsers, userId -> { });
+        this.pages = new LruMap<>(maxPages, pageExpiries::remove);
+    }
+
+    /**
+     * Utilisateur en cache, ou null s'il est absent ou expiré
+     */
+    public synchronized User getUser(String userId) {
+        return lookup(users, userId);
+    }
+
+    /**
+     * Page en cache, ou null si elle est absente ou expirée
+     */
+    public synchronized CachedPage getPage(PageKey key) {
+        CachedPage page = lookup(pages, key);
+        if (page == null) {
+            pageExpiries.remove(key);
+        }
+        return page;
+    }
+
+    /**
+     * Indique si une page valide est en cache, sans modifier les compteurs ni l'ordre LRU
+     */
+    public synchronized boolean containsPage(PageKey key) {
+        Long expiresAt = pageExpiries.get(key);
+        return expiresAt != null && System.nanoTime() - expiresAt <= 0;
+    }
+
+    public synchronized void removePage(PageKey key) {
+        pages.remove(key);
+        pageExpiries.remove(key);
+    }
+
+    /**
+     * Époque courante, à relever avant d'envoyer la requête dont le résultat sera mis en cache
+     */
+    public synchronized long getEpoch() {
+        return epoch;
+    }
+
+    public synchronized void putUser(User user) {
+        if (user != null && user.getId() != null) {
+            users.put(user.getId(), new Entry<>(user, expiry()));
+        }
+    }
+
+    /**
+     * Met en cache un utilisateur lu par une requête envoyée à l'époque readEpoch ;
+     * ignoré si une invalidation a eu lieu depuis
+     */
+    public synchronized void putUser(User user, long readEpoch) {
+        if (readEpoch == epoch) {
+            putUser(user);
+        }
+    }
+
+    /**
+     * Met en cache une page et chacun de ses utilisateurs, lus par une requête envoyée à
+     * l'époque readEpoch ; ignoré si une invalidation a eu lieu depuis
+     */
+    public synchronized void putPage(PageKey key, CachedPage page, long readEpoch) {
+        if (readEpoch != epoch) {
+            return;
+        }
+        long expiresAt = expiry();
+        pages.put(key, new Entry<>(page, expiresAt));
+        pageExpiries.put(key, expiresAt);
+        for (User user : page.getUsers()) {
+            if (user.getId() != null) {
+                users.put(user.getId(), new Entry<>(user, expiresAt));
+            }
+        }
+    }
+
+    /**
+     * Après un ajout ou une modification : l'utilisateur est mis à jour et les pages,
+     * dont le contenu et le total peuvent avoir changé, sont invalidées
+     */
+    public synchronized void userChanged(User user) {
+        invalidatePages();
+        putUser(user);
+    }
+
+    /**
+     * Après une suppression
+     */
+    public synchronized void userDeleted(String userId) {
+        users.remove(userId);
+        invalidatePages();
+    }
+
+    public synchronized void invalidatePages() {
+        epoch++;
+        pages.clear();
+        pageExpiries.clear();
+    }
+
+    public synchronized void clear() {
+        epoch++;
+        users.clear();
+        pages.clear();
+        pageExpiries.clear();
+    }
+
+    public long getHits() { return hits.get(); }
+    public long getMisses() { return misses.get(); }
+    public long getEvictions() { return evictions.get(); }
+
+    public synchronized int getUserCount() { return users.size(); }
+    public synchronized int getPageCount() { return pages.size(); }
+
+    @Override
+    public String toString() {
+        return "UserCache[hits=" + getHits() + ", misses=" + getMisses() + ", evictions=" + getEvictions()
+            + ", users=" + getUserCount() + ", pages=" + getPageCount() + "]";
+    }
+
+    private <K, V> V lookup(Map<K, Entry<V>> map, K key) {
+        Entry<V> entry = map.get(key);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (System.nanoTime() - entry.expiresAt > 0) {
+            map.remove(key);
+            evictions.incrementAndGet();
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.value;
+    }
+
+    private long expiry() {
+        return System.nanoTime() + ttlNanos;
+    }
+
+    /**
+     * LinkedHashMap en ordre d'accès qui évince l'entrée la moins récemment utilisée
+     * et signale la clé évincée
+     */
+    private final class LruMap<K, V> extends LinkedHashMap<K, V> {
+        private static final long serialVersionUID = 1L;
+
+        private final int maxSize;
+        private final transient Consumer<K> onEvict;
+
+        LruMap(int maxSize, Consumer<K> onEvict) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+            this.onEvict = onEvict;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            if (size() > maxSize) {
+                evictions.incrementAndGet();
+                onEvict.accept(eldest.getKey());
+                return true;
+            }
+            return false;
+        }
+    }
+}
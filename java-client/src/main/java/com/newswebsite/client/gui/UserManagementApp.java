@@ -12,14 +12,27 @@ import java.io.IOException;
  */
 public class UserManagementApp extends Application {
     
+    private UserManagementController controller;
+    
     @Override
     public void start(Stage stage) throws IOException {
         FXMLLoader fxmlLoader = new FXMLLoader(UserManagementApp.class.getResource("/fxml/user-management.fxml"));
         Scene scene = new Scene(fxmlLoader.load(), 1000, 700);
+        controller = fxmlLoader.getController();
         stage.setTitle("Gestion des Utilisateurs - Client SOAP");
         stage.setScene(scene);
         stage.show();
     }
+    
+    /**
+     * Appelée à la fermeture de la dernière fenêtre
+     */
+    @Override
+    public void stop() {
+        if (controller != null) {
+            controller.shutdown();
+        }
+    }
 
     public static void main(String[] args) {
         launch();
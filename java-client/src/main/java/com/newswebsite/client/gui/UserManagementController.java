@@ -52,19 +52,35 @@ public class UserManagementController implements Initializable {
     @FXML private TextField pageField;
     @FXML private TextField limitField;
     @FXML private ComboBox<String> roleFilterCombo;
+    @FXML private TextField searchField;
     @FXML private Button refreshButton;
+    @FXML private Button previousPageButton;
+    @FXML private Button nextPageButton;
+    @FXML private CheckBox streamingModeCheck;
+    
+    private static final int MAX_SEARCH_RESULTS = 1000;
     
     private SoapClientService soapClient;
+    private UserTaskScheduler scheduler;
+    private StreamingUserTable streamingTable;
     private ObservableList<User> usersList;
+    private ObservableList<User> searchResults;
     private User selectedUser;
     
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         soapClient = new SoapClientService();
+        scheduler = new UserTaskScheduler();
+        soapClient.setCache(new UserCache());
+        soapClient.setSearchIndex(new UserSearchIndex());
+        // Les pages voisines sont préchargées pour que la navigation ne passe pas par le réseau
+        soapClient.setPrefetchMode(SoapClientService.PrefetchMode.ADJACENT, SoapClientService.DEFAULT_PREFETCH_BUDGET_USERS);
         usersList = FXCollections.observableArrayList();
+        searchResults = FXCollections.observableArrayList();
         
         // Configuration de la table
         setupTable();
+        streamingTable = new StreamingUserTable(usersTable, usersList, soapClient, statusLabel::setText);
         
         // Configuration des ComboBox
         setupComboBoxes();
@@ -126,7 +142,17 @@ public class UserManagementController implements Initializable {
         addUserButton.setOnAction(e -> addUser());
         updateUserButton.setOnAction(e -> updateUser());
         deleteUserButton.setOnAction(e -> deleteUser());
-        refreshButton.setOnAction(e -> loadUsers());
+        refreshButton.setOnAction(e -> refresh());
+        previousPageButton.setOnAction(e -> changePage(-1));
+        nextPageButton.setOnAction(e -> changePage(1));
+        streamingModeCheck.setOnAction(e -> toggleStreamingMode());
+        // La recherche porte sur les utilisateurs déjà chargés : aucun appel SOAP
+        searchField.textProperty().addListener((obs, oldText, newText) -> applySearch());
+        roleFilterCombo.valueProperty().addListener((obs, oldRole, newRole) -> {
+            if (isSearching()) {
+                applySearch();
+            }
+        });
     }
     
     @FXML
@@ -147,7 +173,7 @@ public class UserManagementController implements Initializable {
                     statusLabel.setText("Connexion en cours...");
                 });
                 
-                return soapClient.authenticate(username, password);
+                return soapClient.authenticateForGUI(username, password).isSuccess();
             }
             
             @Override
@@ -179,11 +205,17 @@ public class UserManagementController implements Initializable {
             }
         };
         
-        new Thread(loginTask).start();
+        scheduler.submit(loginTask);
     }
     
     @FXML
     private void logout() {
+        scheduler.cancelLoads();
+        streamingTable.stop();
+        streamingModeCheck.setSelected(false);
+        pageField.setDisable(false);
+        previousPageButton.setDisable(false);
+        nextPageButton.setDisable(false);
         soapClient.logout();
         statusLabel.setText("Déconnecté");
         userManagementPane.setDisable(true);
@@ -193,13 +225,89 @@ public class UserManagementController implements Initializable {
         passwordField.setDisable(false);
         usernameField.clear();
         passwordField.clear();
+        searchField.clear();
         usersList.clear();
         clearEditFields();
     }
     
     @FXML
     private void loadUsers() {
-        Task<SoapClientService.UsersResult> loadTask = new Task<SoapClientService.UsersResult>() {
+        if (streamingTable.isEnabled()) {
+            startStreaming();
+        } else {
+            scheduler.submitLoad(createLoadTask());
+        }
+    }
+    
+    /**
+     * Actualisation demandée par l'utilisateur : le cache est ignoré pour voir les
+     * modifications faites ailleurs
+     */
+    private void refresh() {
+        soapClient.invalidateCache();
+        loadUsers();
+    }
+    
+    /**
+     * Bascule entre la pagination classique et le défilement continu
+     */
+    private void toggleStreamingMode() {
+        boolean streaming = streamingModeCheck.isSelected();
+        pageField.setDisable(streaming);
+        previousPageButton.setDisable(streaming);
+        nextPageButton.setDisable(streaming);
+        if (streaming) {
+            startStreaming();
+        } else {
+            streamingTable.stop();
+            loadUsers();
+        }
+    }
+    
+    private void startStreaming() {
+        scheduler.cancelLoads();
+        int limit;
+        try {
+            limit = Integer.parseInt(limitField.getText().trim());
+        } catch (NumberFormatException e) {
+            showAlert("Erreur", "Limite invalide: " + limitField.getText());
+            return;
+        }
+        streamingTable.start(limit, roleFilterCombo.getValue());
+    }
+    
+    /**
+     * Passe à la page précédente ou suivante
+     */
+    private void changePage(int delta) {
+        int page;
+        try {
+            page = Integer.parseInt(pageField.getText().trim());
+        } catch (NumberFormatException e) {
+            page = 1;
+        }
+        pageField.setText(String.valueOf(Math.max(1, page + delta)));
+        loadUsers();
+    }
+    
+    /**
+     * Rechargement après une modification ; les demandes rapprochées sont regroupées
+     */
+    private void scheduleRefresh() {
+        if (streamingTable.isEnabled()) {
+            startStreaming();
+        } else {
+            scheduler.requestRefresh(this::createLoadTask);
+        }
+    }
+    
+    private Task<SoapClientService.UsersResult> createLoadTask() {
+        // Lecture des champs sur le thread JavaFX
+        String pageText = pageField.getText();
+        String limitText = limitField.getText();
+        String roleFilter = roleFilterCombo.getValue();
+        
+        return new Task<SoapClientService.UsersResult>() {
             @Override
             protected SoapClientService.UsersResult call() throws Exception {
                 Platform.runLater(() -> {
@@ -207,15 +315,21 @@ public class UserManagementController implements Initializable {
                     statusLabel.setText("Chargement des utilisateurs...");
                 });
                 
-                int page = Integer.parseInt(pageField.getText());
-                int limit = Integer.parseInt(limitField.getText());
-                String roleFilter = roleFilterCombo.getValue();
+                int page = Integer.parseInt(pageText);
+                int limit = Integer.parseInt(limitText);
                 
+                // Remplacé par un chargement plus récent avant d'avoir pris un port : pas d'appel
+                if (isCancelled()) {
+                    return null;
+                }
                 return soapClient.getUsersForGUI(page, limit, roleFilter);
             }
             
             @Override
             protected void succeeded() {
+                if (!scheduler.isLatestLoad(this)) {
+                    return;
+                }
                 SoapClientService.UsersResult result = getValue();
                 Platform.runLater(() -> {
                     refreshButton.setDisable(false);
@@ -223,6 +337,9 @@ public class UserManagementController implements Initializable {
                         usersList.clear();
                         usersList.addAll(result.getUsers());
                         statusLabel.setText("Utilisateurs chargés (" + result.getTotal() + " total)");
+                        if (isSearching()) {
+                            applySearch();
+                        }
                     } else {
                         statusLabel.setText("Erreur lors du chargement");
                         showAlert("Erreur", result.getError());
@@ -232,6 +349,9 @@ public class UserManagementController implements Initializable {
             
             @Override
             protected void failed() {
+                if (!scheduler.isLatestLoad(this)) {
+                    return;
+                }
                 Platform.runLater(() -> {
                     refreshButton.setDisable(false);
                     statusLabel.setText("Erreur lors du chargement");
@@ -239,8 +359,48 @@ public class UserManagementController implements Initializable {
                 });
             }
         };
-        
-        new Thread(loadTask).start();
+    }
+    
+    /**
+     * Fermeture de la fenêtre : arrête les threads des tâches SOAP et le mode continu
+     */
+    public void shutdown() {
+        streamingTable.stop();
+        scheduler.shutdown();
+    }
+    
+    private boolean isSearching() {
+        return !searchField.getText().trim().isEmpty();
+    }
+    
+    /**
+     * Filtre la table avec l'index des utilisateurs chargés ; une recherche vide
+     * réaffiche la page courante
+     */
+    private void applySearch() {
+        if (!isSearching()) {
+            if (usersTable.getItems() != usersList) {
+                usersTable.setItems(usersList);
+                searchResults.clear();
+                streamingTable.resume();
+            }
+            return;
+        }
+        UserSearchIndex index = soapClient.getSearchIndex();
+        if (index == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        UserSearchIndex.Result result = index.search(searchField.getText(), roleFilterCombo.getValue(), MAX_SEARCH_RESULTS);
+        long elapsedMicros = (System.nanoTime() - start) / 1000;
+        searchResults.setAll(result.getUsers());
+        if (usersTable.getItems() != searchResults) {
+            // Le défilement de la recherche ne doit pas charger de pages du mode continu
+            streamingTable.suspend();
+            usersTable.setItems(searchResults);
+        }
+        statusLabel.setText(result.getUsers().size() + (result.isTruncated() ? "+" : "")
+            + " utilisateur(s) trouvé(s) parmi " + index.size() + " chargés (" + elapsedMicros + " µs)");
     }
     
     @FXML
@@ -274,7 +434,7 @@ public class UserManagementController implements Initializable {
                     if (result.isSuccess()) {
                         statusLabel.setText("Utilisateur ajouté avec succès");
                         clearNewUserFields();
-                        loadUsers();
+                        scheduleRefresh();
                     } else {
                         statusLabel.setText("Erreur lors de l'ajout");
                         showAlert("Erreur", result.getError());
@@ -292,7 +452,7 @@ public class UserManagementController implements Initializable {
             }
         };
         
-        new Thread(addTask).start();
+        scheduler.submit(addTask);
     }
     
     @FXML
@@ -330,7 +490,7 @@ public class UserManagementController implements Initializable {
                     updateUserButton.setDisable(false);
                     if (result.isSuccess()) {
                         statusLabel.setText("Utilisateur mis à jour avec succès");
-                        loadUsers();
+                        scheduleRefresh();
                     } else {
                         statusLabel.setText("Erreur lors de la mise à jour");
                         showAlert("Erreur", result.getError());
@@ -348,7 +508,7 @@ public class UserManagementController implements Initializable {
             }
         };
         
-        new Thread(updateTask).start();
+        scheduler.submit(updateTask);
     }
     
     @FXML
@@ -384,7 +544,7 @@ public class UserManagementController implements Initializable {
                         if (deleteResult.isSuccess()) {
                             statusLabel.setText("Utilisateur supprimé avec succès");
                             clearEditFields();
-                            loadUsers();
+                            scheduleRefresh();
                         } else {
                             statusLabel.setText("Erreur lors de la suppression");
                             showAlert("Erreur", deleteResult.getError());
@@ -402,7 +562,7 @@ public class UserManagementController implements Initializable {
                 }
             };
             
-            new Thread(deleteTask).start();
+            scheduler.submit(deleteTask);
         }
     }
     
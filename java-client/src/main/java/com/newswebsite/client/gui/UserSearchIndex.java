@@ -0,0 +1,392 @@
+package com.newswebsite.client.gui;
+
+import com.newswebsite.client.soap.generated.User;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index de recherche en mémoire sur les utilisateurs déjà chargés (nom, email, rôle)
+ *
+ * Recherche par sous-chaîne, donc aussi par préfixe, sans tenir compte de la casse.
+ * Les requêtes de trois caractères ou plus passent par des listes de trigrammes triées
+ * que l'on intersecte avant de vérifier les candidats, celles de deux caractères par une
+ * liste de bigrammes et celles d'un caractère par un ensemble de bits par caractère.
+ * L'index est mis à jour au fil des pages reçues et des modifications : un utilisateur
+ * modifié est réindexé sous un nouveau numéro et l'ancien est marqué supprimé, puis
+ * l'index est reconstruit quand les entrées supprimées deviennent majoritaires.
+ */
+public class UserSearchIndex {
+
+    private static final int COMPACTION_MIN_DEAD = 1024;
+    private static final char FIELD_SEPARATOR = '\u0000';
+
+    /**
+     * Résultat d'une recherche
+     */
+    public static final class Result {
+        private final List<User> users;
+        private final boolean truncated;
+
+        Result(List<User> users, boolean truncated) {
+            this.users = users;
+            this.truncated = truncated;
+        }
+
+        public List<User> getUsers() { return users; }
+        /** Vrai si d'autres utilisateurs correspondent au-delà de la limite demandée */
+        public boolean isTruncated() { return truncated; }
+    }
+
+    /**
+     * Liste de numéros d'entrées, croissants puisque les entrées sont numérotées à l'ajout
+     */
+    private static final class Postings {
+        int[] docs = new int[4];
+        int size;
+
+        void add(int doc) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<User> users = new ArrayList<>();
+    private final List<String> texts = new ArrayList<>();
+    private final BitSet live = new BitSet();
+    private final Map<String, Integer> docsById = new HashMap<>();
+    // Bigrammes et trigrammes : un trigramme a toujours un premier caractère non nul, donc une clé >= 2^32
+    private final Map<Long, Postings> grams = new HashMap<>();
+    private final Map<Character, BitSet> characters = new HashMap<>();
+    private final Map<String, BitSet> roles = new HashMap<>();
+
+    /**
+     * Ajoute ou remplace les utilisateurs (par ID)
+     */
+    public void addAll(Collection<User> newUsers) {
+        if (newUsers == null || newUsers.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (User user : newUsers) {
+                upsert(user);
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ajoute ou remplace un utilisateur (par ID)
+     */
+    public void put(User user) {
+        lock.writeLock().lock();
+        try {
+            upsert(user);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String userId) {
+        lock.writeLock().lock();
+        try {
+            Integer doc = docsById.remove(userId);
+            if (doc != null) {
+                live.clear(doc);
+                compactIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            reset();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Nombre d'utilisateurs indexés
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Utilisateurs dont le nom, l'email ou le rôle contient la requête, dans l'ordre de
+     * chargement ; role (null ou vide pour tous) restreint au rôle exact
+     */
+    public Result search(String query, String role, int limit) {
+        String needle = query == null ? "" : normalize(query.trim());
+        lock.readLock().lock();
+        try {
+            BitSet allowed = live;
+            if (role != null && !role.isEmpty()) {
+                BitSet roleDocs = roles.get(role);
+                if (roleDocs == null) {
+                    return new Result(List.of(), false);
+                }
+                allowed = (BitSet) roleDocs.clone();
+                allowed.and(live);
+            }
+            if (needle.isEmpty()) {
+                return collect(allowed, limit);
+            }
+            if (needle.length() == 1) {
+                BitSet withChar = characters.get(needle.charAt(0));
+                if (withChar == null) {
+                    return new Result(List.of(), false);
+                }
+                BitSet candidates = (BitSet) allowed.clone();
+                candidates.and(withChar);
+                return collect(candidates, limit);
+            }
+            if (needle.length() == 2) {
+                return collect(grams.get(bigram(needle, 0)), allowed, limit);
+            }
+            return searchTrigrams(needle, allowed, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Result searchTrigrams(String needle, BitSet allowed, int limit) {
+        long[] keys = gramsOf(needle, 3);
+        Postings[] lists = new Postings[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            lists[i] = grams.get(keys[i]);
+            if (lists[i] == null) {
+                return new Result(List.of(), false);
+            }
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+        // Les candidats viennent de la liste la plus courte, ou des entrées du rôle si elles
+        // sont moins nombreuses ; les autres listes sont parcourues avec un curseur chacune
+        boolean fromRole = allowed != live && allowed.cardinality() < lists[0].size;
+        int firstChecked = fromRole ? 0 : 1;
+        int[] cursors = new int[lists.length];
+        List<User> matches = new ArrayList<>(Math.min(limit, 256));
+        int next = 0;
+        while (true) {
+            int doc;
+            if (fromRole) {
+                doc = allowed.nextSetBit(next);
+                if (doc < 0) {
+                    break;
+                }
+                next = doc + 1;
+            } else {
+                if (next == lists[0].size) {
+                    break;
+                }
+                doc = lists[0].docs[next++];
+                if (!allowed.get(doc)) {
+                    continue;
+                }
+            }
+            if (!containsAll(lists, cursors, firstChecked, doc)) {
+                continue;
+            }
+            // Les trigrammes ne garantissent pas leur ordre dans le texte : on vérifie
+            if (!texts.get(doc).contains(needle)) {
+                continue;
+            }
+            if (matches.size() == limit) {
+                return new Result(matches, true);
+            }
+            matches.add(users.get(doc));
+        }
+        return new Result(matches, false);
+    }
+
+    /**
+     * Vrai si doc figure dans toutes les listes à partir de first ; les curseurs avancent
+     * par recherche exponentielle puisque les candidats sont croissants
+     */
+    private static boolean containsAll(Postings[] lists, int[] cursors, int first, int doc) {
+        for (int i = first; i < lists.length; i++) {
+            Postings postings = lists[i];
+            int from = cursors[i];
+            int step = 1;
+            int to = from;
+            while (to < postings.size && postings.docs[to] < doc) {
+                from = to + 1;
+                to += step;
+                step <<= 1;
+            }
+            int found = Arrays.binarySearch(postings.docs, from, Math.min(to + 1, postings.size), doc);
+            if (found < 0) {
+                cursors[i] = -found - 1;
+                return false;
+            }
+            cursors[i] = found;
+        }
+        return true;
+    }
+
+    private Result collect(BitSet candidates, int limit) {
+        List<User> matches = new ArrayList<>(Math.min(limit, 256));
+        for (int doc = candidates.nextSetBit(0); doc >= 0; doc = candidates.nextSetBit(doc + 1)) {
+            if (matches.size() == limit) {
+                return new Result(matches, true);
+            }
+            matches.add(users.get(doc));
+        }
+        return new Result(matches, false);
+    }
+
+    private Result collect(Postings postings, BitSet allowed, int limit) {
+        if (postings == null) {
+            return new Result(List.of(), false);
+        }
+        List<User> matches = new ArrayList<>(Math.min(limit, 256));
+        for (int i = 0; i < postings.size; i++) {
+            int doc = postings.docs[i];
+            if (!allowed.get(doc)) {
+                continue;
+            }
+            if (matches.size() == limit) {
+                return new Result(matches, true);
+            }
+            matches.add(users.get(doc));
+        }
+        return new Result(matches, false);
+    }
+
+    private void upsert(User user) {
+        if (user == null || user.getId() == null) {
+            return;
+        }
+        String text = textOf(user);
+        Integer previous = docsById.get(user.getId());
+        if (previous != null && texts.get(previous).equals(text)) {
+            // Mêmes champs indexés : seules les autres valeurs (dates) changent
+            users.set(previous, user);
+            return;
+        }
+        if (previous != null) {
+            live.clear(previous);
+        }
+        index(user, text);
+    }
+
+    private void index(User user, String text) {
+        int doc = users.size();
+        users.add(user);
+        texts.add(text);
+        live.set(doc);
+        docsById.put(user.getId(), doc);
+        if (user.getRole() != null) {
+            roles.computeIfAbsent(user.getRole(), r -> new BitSet()).set(doc);
+        }
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c != FIELD_SEPARATOR) {
+                characters.computeIfAbsent(c, k -> new BitSet()).set(doc);
+            }
+        }
+        for (long key : gramsOf(text, 2)) {
+            grams.computeIfAbsent(key, k -> new Postings()).add(doc);
+        }
+        for (long key : gramsOf(text, 3)) {
+            grams.computeIfAbsent(key, k -> new Postings()).add(doc);
+        }
+    }
+
+    private void compactIfNeeded() {
+        int dead = users.size() - docsById.size();
+        if (dead < COMPACTION_MIN_DEAD || dead < docsById.size()) {
+            return;
+        }
+        List<User> kept = new ArrayList<>(docsById.size());
+        List<String> keptTexts = new ArrayList<>(docsById.size());
+        for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+            kept.add(users.get(doc));
+            keptTexts.add(texts.get(doc));
+        }
+        reset();
+        for (int i = 0; i < kept.size(); i++) {
+            index(kept.get(i), keptTexts.get(i));
+        }
+    }
+
+    private void reset() {
+        users.clear();
+        texts.clear();
+        live.clear();
+        docsById.clear();
+        grams.clear();
+        characters.clear();
+        roles.clear();
+    }
+
+    private static String textOf(User user) {
+        return normalize(nullToEmpty(user.getUsername())) + FIELD_SEPARATOR
+            + normalize(nullToEmpty(user.getEmail())) + FIELD_SEPARATOR
+            + normalize(nullToEmpty(user.getRole()));
+    }
+
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT).replace(FIELD_SEPARATOR, ' ');
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    /**
+     * Bigrammes (length 2) ou trigrammes (length 3) distincts du texte, sans ceux qui
+     * chevauchent deux champs
+     */
+    private static long[] gramsOf(String text, int length) {
+        long[] keys = new long[Math.max(0, text.length() - length + 1)];
+        int n = 0;
+        for (int i = 0; i + length <= text.length(); i++) {
+            int separator = text.indexOf(FIELD_SEPARATOR, i);
+            if (separator < 0 || separator >= i + length) {
+                keys[n++] = length == 2 ? bigram(text, i) : trigram(text, i);
+            }
+        }
+        Arrays.sort(keys, 0, n);
+        int distinct = 0;
+        for (int i = 0; i < n; i++) {
+            if (distinct == 0 || keys[i] != keys[distinct - 1]) {
+                keys[distinct++] = keys[i];
+            }
+        }
+        return Arrays.copyOf(keys, distinct);
+    }
+
+    private static long bigram(String text, int i) {
+        return ((long) text.charAt(i) << 16) | text.charAt(i + 1);
+    }
+
+    private static long trigram(String text, int i) {
+        return ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+    }
+}
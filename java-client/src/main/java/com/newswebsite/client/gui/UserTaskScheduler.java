@@ -0,0 +1,114 @@
+package com.newswebsite.client.gui;
+
+import com.newswebsite.client.soap.SoapCallExecutors;
+import javafx.application.Platform;
+import javafx.concurrent.Task;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Planificateur des tâches SOAP de l'interface graphique
+ *
+ * Un nombre fixe de threads limite les appels SOAP simultanés. Seul le dernier
+ * chargement de la liste est conservé : un nouveau chargement annule le précédent,
+ * et les rafraîchissements demandés à quelques millisecondes d'intervalle sont regroupés.
+ * Un chargement annulé qui n'a pas encore envoyé sa requête ne l'envoie pas ; un appel déjà
+ * parti ne peut pas être interrompu, il se termine et son résultat est ignoré.
+ * Les méthodes de soumission doivent être appelées depuis le thread JavaFX, et
+ * {@link #shutdown()} à la fermeture de la fenêtre.
+ */
+public class UserTaskScheduler {
+
+    public static final int DEFAULT_MAX_IN_FLIGHT = 4;
+    public static final long DEFAULT_COALESCE_MILLIS = 200;
+
+    private final ExecutorService executor;
+    private final ScheduledExecutorService timer;
+    private final long coalesceMillis;
+
+    private Task<?> currentLoad;
+    private ScheduledFuture<?> pendingRefresh;
+
+    public UserTaskScheduler() {
+        this(DEFAULT_MAX_IN_FLIGHT, DEFAULT_COALESCE_MILLIS);
+    }
+
+    public UserTaskScheduler(int maxInFlight, long coalesceMillis) {
+        this.executor = Executors.newFixedThreadPool(maxInFlight, SoapCallExecutors.daemonThreadFactory("gui-soap"));
+        this.timer = Executors.newSingleThreadScheduledExecutor(SoapCallExecutors.daemonThreadFactory("gui-refresh"));
+        this.coalesceMillis = coalesceMillis;
+    }
+
+    /**
+     * Soumet une tâche indépendante (connexion, ajout, modification, suppression)
+     */
+    public void submit(Task<?> task) {
+        executor.execute(task);
+    }
+
+    /**
+     * Lance immédiatement un chargement et annule le chargement précédent s'il n'est pas terminé
+     */
+    public void submitLoad(Task<?> loadTask) {
+        cancelPendingRefresh();
+        if (currentLoad != null) {
+            // Pas d'interruption : l'appel en cours se termine mais son résultat est ignoré
+            currentLoad.cancel(false);
+        }
+        currentLoad = loadTask;
+        executor.execute(loadTask);
+    }
+
+    /**
+     * Demande un rechargement différé ; les demandes reçues pendant la fenêtre de regroupement
+     * ne produisent qu'un seul chargement
+     */
+    public void requestRefresh(Supplier<Task<?>> loadTaskFactory) {
+        if (pendingRefresh != null && !pendingRefresh.isDone()) {
+            return;
+        }
+        pendingRefresh = timer.schedule(
+            () -> Platform.runLater(() -> submitLoad(loadTaskFactory.get())),
+            coalesceMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Indique si la tâche est le chargement le plus récent ; un chargement remplacé ou annulé
+     * doit ignorer son résultat
+     */
+    public boolean isLatestLoad(Task<?> loadTask) {
+        return loadTask == currentLoad;
+    }
+
+    /**
+     * Annule le chargement en cours et les rafraîchissements en attente
+     */
+    public void cancelLoads() {
+        cancelPendingRefresh();
+        if (currentLoad != null) {
+            currentLoad.cancel(false);
+            currentLoad = null;
+        }
+    }
+
+    /**
+     * Arrête les threads ; les tâches en attente sont abandonnées et celles en cours interrompues
+     */
+    public void shutdown() {
+        cancelLoads();
+        timer.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    private void cancelPendingRefresh() {
+        if (pendingRefresh != null) {
+            pendingRefresh.cancel(false);
+            pendingRefresh = null;
+        }
+    }
+}
@@ -0,0 +1,439 @@
+package com.newswebsite.client.loadtest;
+
+import com.newswebsite.client.gui.SoapClientService;
+import com.newswebsite.client.loadtest.OperationMix.Operation;
+import com.newswebsite.client.soap.SoapCallExecutors;
+import com.newswebsite.client.soap.generated.User;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a mix of SOAP user operations from concurrent sessions at a target rate.
+ *
+ * The load is open-model: each session has a fixed schedule of start times and does not
+ * slow down when the service does. Response time is measured from the scheduled start, so a
+ * stalled service is charged for the calls it delayed as well as for the slow call itself
+ * (no coordinated omission). Service time, from the actual start, is reported alongside.
+ *
+ * Sessions share one client and one admin token. Only users created by the run are updated
+ * or deleted; those left at the end are deleted unless asked otherwise.
+ */
+public class LoadGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoadGenerator.class);
+
+    private static final long REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final int SEED_PAGE_SIZE = 100;
+    private static final String PASSWORD = "LoadTest123!";
+
+    /**
+     * Latencies and error count of one operation over the measured period
+     */
+    public static final class OperationStats {
+        private final Operation operation;
+        private final Histogram responseTime = new Histogram(3);
+        private final Histogram serviceTime = new Histogram(3);
+        private long errors;
+
+        OperationStats(Operation operation) {
+            this.operation = operation;
+        }
+
+        public Operation getOperation() { return operation; }
+        /** Microseconds from scheduled start to completion */
+        public Histogram getResponseTime() { return responseTime; }
+        /** Microseconds from actual start to completion */
+        public Histogram getServiceTime() { return serviceTime; }
+        public long getCalls() { return responseTime.getTotalCount(); }
+        public long getErrors() { return errors; }
+    }
+
+    /**
+     * Outcome of a run
+     */
+    public static final class Report {
+        private final List<OperationStats> operations;
+        private final int sessions;
+        private final double targetRate;
+        private final long measuredNanos;
+
+        Report(List<OperationStats> operations, int sessions, double targetRate, long measuredNanos) {
+            this.operations = operations;
+            this.sessions = sessions;
+            this.targetRate = targetRate;
+            this.measuredNanos = measuredNanos;
+        }
+
+        public List<OperationStats> getOperations() { return operations; }
+        public long getMeasuredNanos() { return measuredNanos; }
+
+        public long getCalls() {
+            return operations.stream().mapToLong(OperationStats::getCalls).sum();
+        }
+
+        public long getErrors() {
+            return operations.stream().mapToLong(OperationStats::getErrors).sum();
+        }
+
+        public double getThroughput() {
+            return measuredNanos == 0 ? 0 : getCalls() * 1e9 / measuredNanos;
+        }
+
+        /**
+         * Text table, one row per operation plus a total row
+         */
+        public String format() {
+            StringBuilder text = new StringBuilder();
+            text.append(String.format("%s from %d sessions, measured %.1f s: %,d calls (%.1f ops/s), %,d errors%n",
+                targetRate > 0 ? String.format("Target %.1f ops/s", targetRate) : "Unthrottled", sessions,
+                measuredNanos / 1e9, getCalls(), getThroughput(), getErrors()));
+            text.append(String.format("%-12s %9s %7s %9s %9s %9s %9s %9s %9s %11s %11s%n",
+                "Operation", "Calls", "Errors", "ops/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms",
+                "svc p50 ms", "svc p99 ms"));
+            Histogram allResponse = new Histogram(3);
+            Histogram allService = new Histogram(3);
+            for (OperationStats stats : operations) {
+                if (stats.getCalls() == 0) {
+                    continue;
+                }
+                row(text, stats.getOperation().getSoapName(), stats.getResponseTime(), stats.getServiceTime(), stats.getErrors());
+                allResponse.add(stats.getResponseTime());
+                allService.add(stats.getServiceTime());
+            }
+            row(text, "total", allResponse, allService, getErrors());
+            text.append("Latencies include failed calls. p* columns: from scheduled start (corrected for coordinated omission);")
+                .append(System.lineSeparator())
+                .append("svc columns: from actual start. A large gap between them means the sessions fell behind the target rate.")
+                .append(System.lineSeparator());
+            return text.toString();
+        }
+
+        private void row(StringBuilder text, String name, Histogram response, Histogram service, long errors) {
+            text.append(String.format("%-12s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %11.2f %11.2f%n",
+                name, response.getTotalCount(), errors, measuredNanos == 0 ? 0 : response.getTotalCount() * 1e9 / measuredNanos,
+                millis(response.getValueAtPercentile(50)), millis(response.getValueAtPercentile(90)),
+                millis(response.getValueAtPercentile(99)), millis(response.getValueAtPercentile(99.9)),
+                millis(response.getMaxValue()), millis(service.getValueAtPercentile(50)),
+                millis(service.getValueAtPercentile(99))));
+        }
+
+        /**
+         * Full HDR percentile distribution of each operation, as {@code <operation>.hgrm} in the directory
+         */
+        public void writeDistributions(Path directory) throws IOException {
+            Files.createDirectories(directory);
+            for (OperationStats stats : operations) {
+                if (stats.getCalls() == 0) {
+                    continue;
+                }
+                try (PrintStream out = new PrintStream(
+                        Files.newOutputStream(directory.resolve(stats.getOperation().getSoapName() + ".hgrm")), false, "UTF-8")) {
+                    // Values are recorded in microseconds; the scaling ratio prints milliseconds
+                    stats.getResponseTime().outputPercentileDistribution(out, 1000.0);
+                }
+            }
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+    }
+
+    /**
+     * Interval recorders filled by the sessions, harvested by the reporting thread
+     */
+    private static final class OperationRecorder {
+        final Recorder responseTime = new Recorder(3);
+        final Recorder serviceTime = new Recorder(3);
+        final LongAdder errors = new LongAdder();
+        final OperationStats total;
+        Histogram responseInterval;
+        Histogram serviceInterval;
+
+        OperationRecorder(Operation operation) {
+            this.total = new OperationStats(operation);
+        }
+
+        void record(long responseNanos, long serviceNanos, boolean success) {
+            responseTime.recordValue(Math.max(0, responseNanos / 1000));
+            serviceTime.recordValue(Math.max(0, serviceNanos / 1000));
+            if (!success) {
+                errors.increment();
+            }
+        }
+
+        /**
+         * Take what was recorded since the last call; added to the totals only once warm-up is over
+         */
+        Histogram harvest(boolean measuring) {
+            responseInterval = responseTime.getIntervalHistogram(responseInterval);
+            serviceInterval = serviceTime.getIntervalHistogram(serviceInterval);
+            long intervalErrors = errors.sumThenReset();
+            if (measuring) {
+                total.responseTime.add(responseInterval);
+                total.serviceTime.add(serviceInterval);
+                total.errors += intervalErrors;
+            }
+            return responseInterval;
+        }
+    }
+
+    private final SoapClientService client;
+    private final OperationMix mix;
+    private final int sessions;
+    private final double targetRate;
+    private final int pageSize;
+    private final boolean keepUsers;
+    private final Map<Operation, OperationRecorder> recorders = new EnumMap<>(Operation.class);
+    private final String runId = Long.toString(System.currentTimeMillis() % 1_000_000_000L, 36);
+    private final AtomicLong userSequence = new AtomicLong();
+    private volatile List<String> seedUserIds = Collections.emptyList();
+    private volatile int seedTotal;
+
+    /**
+     * @param client     authenticated as an admin; its cache should be disabled so every read reaches the service
+     * @param targetRate calls per second across all sessions, or 0 to call back-to-back
+     * @param pageSize   limit of the getUsers calls
+     * @param keepUsers  do not delete the users still present at the end of the run
+     */
+    public LoadGenerator(SoapClientService client, OperationMix mix, int sessions, double targetRate, int pageSize,
+                         boolean keepUsers) {
+        if (sessions < 1) {
+            throw new IllegalArgumentException("At least one session is needed");
+        }
+        this.client = client;
+        this.mix = mix;
+        this.sessions = sessions;
+        this.targetRate = targetRate;
+        this.pageSize = pageSize;
+        this.keepUsers = keepUsers;
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new OperationRecorder(operation));
+        }
+    }
+
+    /**
+     * Run the warm-up then the measured period, printing one progress line per second
+     */
+    public Report run(int warmupSeconds, int durationSeconds, PrintStream progress) throws InterruptedException {
+        seed();
+        List<Session> running = new ArrayList<>(sessions);
+        long startNanos = System.nanoTime();
+        long warmupEndNanos = startNanos + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long endNanos = warmupEndNanos + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+        List<Thread> threads = new ArrayList<>(sessions);
+        for (int i = 0; i < sessions; i++) {
+            Session session = new Session(i, startNanos, endNanos);
+            running.add(session);
+            Thread thread = SoapCallExecutors.daemonThreadFactory("load-session").newThread(session);
+            threads.add(thread);
+            thread.start();
+        }
+
+        for (long tick = startNanos + REPORT_INTERVAL_NANOS; ; tick += REPORT_INTERVAL_NANOS) {
+            long until = Math.min(tick, endNanos);
+            sleepUntil(until);
+            boolean measuring = until - warmupEndNanos > 0;
+            reportInterval(progress, until - startNanos, measuring);
+            if (until == endNanos) {
+                break;
+            }
+        }
+        for (Thread thread : threads) {
+            // Calls started before the end are still counted; each is bounded by the request timeout
+            thread.join();
+        }
+        for (OperationRecorder recorder : recorders.values()) {
+            recorder.harvest(true);
+        }
+        long measuredNanos = System.nanoTime() - warmupEndNanos;
+
+        if (!keepUsers) {
+            cleanUp(running, progress);
+        }
+        List<OperationStats> stats = new ArrayList<>();
+        recorders.values().forEach(recorder -> stats.add(recorder.total));
+        return new Report(stats, sessions, targetRate, measuredNanos);
+    }
+
+    /**
+     * Ids for getUserById and the page count for getUsers, from a first page of users
+     */
+    private void seed() {
+        SoapClientService.UsersResult result = client.getUsersDirect(1, SEED_PAGE_SIZE, null);
+        if (!result.isSuccess()) {
+            throw new IllegalStateException("Cannot list users before the load test: " + result.getError());
+        }
+        List<String> ids = new ArrayList<>();
+        for (User user : result.getUsers()) {
+            ids.add(user.getId());
+        }
+        seedUserIds = ids;
+        seedTotal = result.getTotal();
+        logger.debug("Load test seeded with {} user ids, {} users in total", ids.size(), seedTotal);
+    }
+
+    private void reportInterval(PrintStream progress, long elapsedNanos, boolean measuring) {
+        Histogram interval = new Histogram(3);
+        long errors = 0;
+        for (OperationRecorder recorder : recorders.values()) {
+            long errorsBefore = recorder.total.errors;
+            interval.add(recorder.harvest(measuring));
+            errors += recorder.total.errors - errorsBefore;
+        }
+        progress.printf("[%4ds] %-9s %,8d calls %6s errors  p50 %.1f ms  p99 %.1f ms  max %.1f ms%n",
+            TimeUnit.NANOSECONDS.toSeconds(elapsedNanos), measuring ? "measuring" : "warm-up",
+            interval.getTotalCount(), measuring ? String.valueOf(errors) : "-",
+            interval.getValueAtPercentile(50) / 1000.0, interval.getValueAtPercentile(99) / 1000.0,
+            interval.getMaxValue() / 1000.0);
+    }
+
+    private void cleanUp(List<Session> sessions, PrintStream progress) {
+        int deleted = 0;
+        for (Session session : sessions) {
+            for (String userId : session.createdUserIds) {
+                if (client.deleteUserForGUI(userId).isSuccess()) {
+                    deleted++;
+                }
+            }
+        }
+        if (deleted > 0) {
+            progress.printf("Deleted %d users left by the load test%n", deleted);
+        }
+    }
+
+    private static void sleepUntil(long deadlineNanos) throws InterruptedException {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    /**
+     * One simulated admin. Its calls are evenly spaced; sessions are staggered so the
+     * combined schedule is evenly spaced too.
+     */
+    private final class Session implements Runnable {
+        private final int index;
+        private final long startNanos;
+        private final long endNanos;
+        // Users this session created and has not deleted; only this session's thread touches it
+        private final Deque<String> createdUserIds = new ArrayDeque<>();
+        private boolean promoteNext = true;
+
+        Session(int index, long startNanos, long endNanos) {
+            this.index = index;
+            this.startNanos = startNanos;
+            this.endNanos = endNanos;
+        }
+
+        @Override
+        public void run() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long intervalNanos = targetRate > 0 ? (long) (sessions * 1e9 / targetRate) : 0;
+            long scheduled = startNanos + intervalNanos * index / sessions;
+            long now = System.nanoTime();
+            // A session that fell behind stops at the end too, not once its backlog is worked off
+            while (scheduled - endNanos < 0 && now - endNanos < 0) {
+                if (intervalNanos > 0) {
+                    while (scheduled - now > 0) {
+                        LockSupport.parkNanos(scheduled - now);
+                        now = System.nanoTime();
+                    }
+                } else {
+                    scheduled = now;
+                }
+                Operation operation = resolve(mix.pick(random));
+                long actualStart = System.nanoTime();
+                boolean success;
+                try {
+                    success = execute(operation, random);
+                } catch (RuntimeException e) {
+                    logger.debug("{} failed in load session {}", operation.getSoapName(), index, e);
+                    success = false;
+                }
+                long end = System.nanoTime();
+                recorders.get(operation).record(end - scheduled, end - actualStart, success);
+                scheduled += intervalNanos;
+                now = System.nanoTime();
+            }
+        }
+
+        /**
+         * Updates and deletes need a user created by this session; without one, create one instead
+         */
+        private Operation resolve(Operation operation) {
+            if ((operation == Operation.UPDATE_USER || operation == Operation.DELETE_USER) && createdUserIds.isEmpty()) {
+                return Operation.ADD_USER;
+            }
+            if (operation == Operation.GET_USER_BY_ID && seedUserIds.isEmpty() && createdUserIds.isEmpty()) {
+                return Operation.ADD_USER;
+            }
+            return operation;
+        }
+
+        private boolean execute(Operation operation, ThreadLocalRandom random) {
+            switch (operation) {
+                case GET_USERS: {
+                    int pages = Math.max(1, (seedTotal + pageSize - 1) / pageSize);
+                    return client.getUsersDirect(1 + random.nextInt(pages), pageSize, null).isSuccess();
+                }
+                case GET_USER_BY_ID: {
+                    List<String> seeds = seedUserIds;
+                    String userId = seeds.isEmpty() || (!createdUserIds.isEmpty() && random.nextBoolean())
+                        ? createdUserIds.peekLast()
+                        : seeds.get(random.nextInt(seeds.size()));
+                    return client.getUserByIdForGUI(userId).isSuccess();
+                }
+                case ADD_USER: {
+                    String username = "lt" + runId + "s" + index + "u" + userSequence.incrementAndGet();
+                    SoapClientService.UserResult result =
+                        client.addUserForGUI(username, username + "@loadtest.invalid", PASSWORD, "VISITOR");
+                    if (result.isSuccess() && result.getUser() != null) {
+                        createdUserIds.addLast(result.getUser().getId());
+                    }
+                    return result.isSuccess();
+                }
+                case UPDATE_USER: {
+                    String role = promoteNext ? "EDITOR" : "VISITOR";
+                    promoteNext = !promoteNext;
+                    return client.updateUserForGUI(createdUserIds.peekLast(), null, null, null, role).isSuccess();
+                }
+                case DELETE_USER: {
+                    String userId = createdUserIds.pollFirst();
+                    boolean success = client.deleteUserForGUI(userId).isSuccess();
+                    if (!success) {
+                        // Keep it for the final clean-up
+                        createdUserIds.addLast(userId);
+                    }
+                    return success;
+                }
+                default:
+                    throw new IllegalStateException("Unhandled operation " + operation);
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.newswebsite.client.loadtest;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Weighted choice among the SOAP user operations, e.g. {@code getUsers=60,getUserById=25,addUser=5,updateUser=5,deleteUser=5}
+ */
+public class OperationMix {
+
+    public enum Operation {
+        GET_USERS("getUsers"),
+        GET_USER_BY_ID("getUserById"),
+        ADD_USER("addUser"),
+        UPDATE_USER("updateUser"),
+        DELETE_USER("deleteUser");
+
+        private final String soapName;
+
+        Operation(String soapName) {
+            this.soapName = soapName;
+        }
+
+        public String getSoapName() {
+            return soapName;
+        }
+
+        static Operation fromSoapName(String name) {
+            for (Operation operation : values()) {
+                if (operation.soapName.equalsIgnoreCase(name)) {
+                    return operation;
+                }
+            }
+            throw new IllegalArgumentException("Unknown operation '" + name + "', expected one of "
+                + Arrays.toString(Arrays.stream(values()).map(Operation::getSoapName).toArray()));
+        }
+    }
+
+    public static final String DEFAULT = "getUsers=60,getUserById=25,addUser=5,updateUser=5,deleteUser=5";
+
+    private final Map<Operation, Integer> weights;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    public OperationMix(Map<Operation, Integer> weights) {
+        this.weights = new EnumMap<>(weights);
+        this.operations = new Operation[this.weights.size()];
+        this.cumulativeWeights = new int[this.weights.size()];
+        int total = 0;
+        int i = 0;
+        for (Map.Entry<Operation, Integer> entry : this.weights.entrySet()) {
+            if (entry.getValue() < 0) {
+                throw new IllegalArgumentException("Negative weight for " + entry.getKey().getSoapName());
+            }
+            total += entry.getValue();
+            operations[i] = entry.getKey();
+            cumulativeWeights[i] = total;
+            i++;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("Operation mix has no positive weight");
+        }
+    }
+
+    /**
+     * Parse {@code name=weight} pairs separated by commas; operations not listed are never chosen
+     */
+    public static OperationMix parse(String spec) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : spec.split(",")) {
+            String trimmed = part.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int equals = trimmed.indexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("Expected name=weight, got '" + trimmed + "'");
+            }
+            Operation operation = Operation.fromSoapName(trimmed.substring(0, equals).trim());
+            weights.merge(operation, Integer.parseInt(trimmed.substring(equals + 1).trim()), Integer::sum);
+        }
+        return new OperationMix(weights);
+    }
+
+    public Operation pick(Random random) {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        weights.forEach((operation, weight) -> {
+            if (text.length() > 0) {
+                text.append(',');
+            }
+            text.append(operation.getSoapName()).append('=').append(weight);
+        });
+        return text.toString();
+    }
+}
@@ -0,0 +1,64 @@
+package com.newswebsite.client.rest;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.time.Instant;
+
+/**
+ * Article as returned by the REST service
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Article {
+
+    private String id;
+    private String title;
+    private String content;
+    private String summary;
+    private boolean published;
+    private Instant createdAt;
+    private Instant updatedAt;
+    private String authorId;
+    private String categoryId;
+    private Author author;
+    private Category category;
+
+    /**
+     * Author summary embedded in an article
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Author {
+        private String id;
+        private String username;
+        private String email;
+
+        public String getId() { return id; }
+        public void setId(String id) { this.id = id; }
+        public String getUsername() { return username; }
+        public void setUsername(String username) { this.username = username; }
+        public String getEmail() { return email; }
+        public void setEmail(String email) { this.email = email; }
+    }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+    public String getContent() { return content; }
+    public void setContent(String content) { this.content = content; }
+    public String getSummary() { return summary; }
+    public void setSummary(String summary) { this.summary = summary; }
+    public boolean isPublished() { return published; }
+    public void setPublished(boolean published) { this.published = published; }
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+    public Instant getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+    public String getAuthorId() { return authorId; }
+    public void setAuthorId(String authorId) { this.authorId = authorId; }
+    public String getCategoryId() { return categoryId; }
+    public void setCategoryId(String categoryId) { this.categoryId = categoryId; }
+    public Author getAuthor() { return author; }
+    public void setAuthor(Author author) { this.author = author; }
+    public Category getCategory() { return category; }
+    public void setCategory(Category category) { this.category = category; }
+}
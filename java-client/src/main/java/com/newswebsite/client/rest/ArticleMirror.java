@@ -0,0 +1,269 @@
+package com.newswebsite.client.rest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Local append-only copy of the REST article catalogue.
+ *
+ * Articles are appended as JSON records to {@code articles.log}. Each append also adds a
+ * fixed-size entry (id, offset, length, updatedAt) to {@code articles.idx}; the last entry
+ * for an id wins. Reads go through a memory-mapped view of the log and never touch the network.
+ *
+ * The REST API only lists articles newest-first by creation date and has no "changed since"
+ * filter, so an incremental sync walks pages from the newest article and stops at the first
+ * page that is entirely older than the watermark (the newest creation date already mirrored)
+ * and unchanged. Only new or modified articles are written. Edits to older articles are
+ * picked up by a full rescan.
+ */
+public class ArticleMirror implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArticleMirror.class);
+
+    public static final int SYNC_PAGE_SIZE = 100;
+
+    private static final String LOG_FILE = "articles.log";
+    private static final String INDEX_FILE = "articles.idx";
+    private static final int MAX_ID_BYTES = 40;
+    // id length (1) + id (40) + offset (8) + length (4) + updatedAt millis (8) + createdAt millis (8)
+    private static final int INDEX_ENTRY_SIZE = 1 + MAX_ID_BYTES + 8 + 4 + 8 + 8;
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    /**
+     * Outcome of a sync run
+     */
+    public static final class SyncResult {
+        private final int pagesRead;
+        private final int articlesSeen;
+        private final int articlesWritten;
+        private final long elapsedMillis;
+
+        SyncResult(int pagesRead, int articlesSeen, int articlesWritten, long elapsedMillis) {
+            this.pagesRead = pagesRead;
+            this.articlesSeen = articlesSeen;
+            this.articlesWritten = articlesWritten;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public int getPagesRead() { return pagesRead; }
+        public int getArticlesSeen() { return articlesSeen; }
+        public int getArticlesWritten() { return articlesWritten; }
+        public long getElapsedMillis() { return elapsedMillis; }
+
+        @Override
+        public String toString() {
+            return articlesWritten + " new or changed articles written (" + articlesSeen + " seen on "
+                + pagesRead + " pages) in " + elapsedMillis + " ms";
+        }
+    }
+
+    private static final class IndexEntry {
+        final long offset;
+        final int length;
+        final long updatedAt;
+        final long createdAt;
+
+        IndexEntry(long offset, int length, long updatedAt, long createdAt) {
+            this.offset = offset;
+            this.length = length;
+            this.updatedAt = updatedAt;
+            this.createdAt = createdAt;
+        }
+    }
+
+    private final FileChannel logChannel;
+    private final FileChannel indexChannel;
+    private final Map<String, IndexEntry> index = new HashMap<>();
+    private long watermark = NO_TIME;
+    private MappedByteBuffer mappedLog;
+
+    /**
+     * Open the mirror stored in the directory, creating it if needed
+     */
+    public ArticleMirror(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        this.logChannel = FileChannel.open(directory.resolve(LOG_FILE),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.indexChannel = FileChannel.open(directory.resolve(INDEX_FILE),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        loadIndex();
+    }
+
+    /**
+     * Pull new and changed articles from the REST service
+     *
+     * @param fullRescan walk every page instead of stopping at the watermark
+     */
+    public synchronized SyncResult sync(RestClient client, boolean fullRescan) throws IOException {
+        long start = System.nanoTime();
+        long previousWatermark = watermark;
+        int[] seen = {0};
+        int[] written = {0};
+        int pagesRead = 0;
+        int page = 1;
+
+        while (true) {
+            boolean[] pageHasDelta = {false};
+            boolean[] pageHasNewerThanWatermark = {false};
+            List<Article> changed = new ArrayList<>();
+            Pagination pagination = client.streamArticles(page, SYNC_PAGE_SIZE, null, null, article -> {
+                seen[0]++;
+                long created = millis(article.getCreatedAt());
+                if (previousWatermark == NO_TIME || created > previousWatermark) {
+                    pageHasNewerThanWatermark[0] = true;
+                }
+                if (isChanged(article)) {
+                    pageHasDelta[0] = true;
+                    changed.add(article);
+                }
+            });
+            pagesRead++;
+            for (Article article : changed) {
+                append(article);
+                written[0]++;
+            }
+
+            boolean lastPage = pagination == null || page >= pagination.getPages();
+            if (lastPage || (!fullRescan && !pageHasDelta[0] && !pageHasNewerThanWatermark[0])) {
+                break;
+            }
+            page++;
+        }
+
+        logChannel.force(false);
+        indexChannel.force(false);
+        SyncResult result = new SyncResult(pagesRead, seen[0], written[0], (System.nanoTime() - start) / 1_000_000);
+        logger.info("Article mirror sync: {}", result);
+        return result;
+    }
+
+    /**
+     * Mirrored article, or null if unknown
+     */
+    public synchronized Article get(String id) throws IOException {
+        IndexEntry entry = index.get(id);
+        return entry == null ? null : read(entry);
+    }
+
+    /**
+     * Pass every mirrored article (latest version) to the consumer
+     */
+    public synchronized void forEach(Consumer<Article> consumer) throws IOException {
+        for (IndexEntry entry : index.values()) {
+            consumer.accept(read(entry));
+        }
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    /**
+     * Creation date of the newest mirrored article, or null if the mirror is empty
+     */
+    public synchronized Instant getWatermark() {
+        return watermark == NO_TIME ? null : Instant.ofEpochMilli(watermark);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        mappedLog = null;
+        try {
+            logChannel.close();
+        } finally {
+            indexChannel.close();
+        }
+    }
+
+    private boolean isChanged(Article article) {
+        IndexEntry entry = index.get(article.getId());
+        return entry == null || entry.updatedAt != millis(article.getUpdatedAt());
+    }
+
+    private void append(Article article) throws IOException {
+        byte[] id = article.getId().getBytes(StandardCharsets.UTF_8);
+        if (id.length > MAX_ID_BYTES) {
+            throw new IOException("Article id too long for the mirror index: " + article.getId());
+        }
+        byte[] json = RestClient.JSON_MAPPER.writeValueAsBytes(article);
+
+        long offset = logChannel.size();
+        ByteBuffer record = ByteBuffer.allocate(4 + json.length);
+        record.putInt(json.length).put(json).flip();
+        writeFully(logChannel, record, offset);
+
+        IndexEntry entry = new IndexEntry(offset + 4, json.length, millis(article.getUpdatedAt()), millis(article.getCreatedAt()));
+        ByteBuffer indexRecord = ByteBuffer.allocate(INDEX_ENTRY_SIZE);
+        indexRecord.put((byte) id.length).put(id).position(1 + MAX_ID_BYTES);
+        indexRecord.putLong(entry.offset).putInt(entry.length).putLong(entry.updatedAt).putLong(entry.createdAt).flip();
+        writeFully(indexChannel, indexRecord, indexChannel.size());
+
+        index.put(article.getId(), entry);
+        watermark = Math.max(watermark, entry.createdAt);
+    }
+
+    private Article read(IndexEntry entry) throws IOException {
+        ByteBuffer view;
+        if (logChannel.size() > Integer.MAX_VALUE) {
+            view = logChannel.map(FileChannel.MapMode.READ_ONLY, entry.offset, entry.length);
+        } else {
+            if (mappedLog == null || mappedLog.capacity() < entry.offset + entry.length) {
+                // Remap after appends so the view covers the whole log
+                mappedLog = logChannel.map(FileChannel.MapMode.READ_ONLY, 0, logChannel.size());
+            }
+            view = mappedLog.duplicate();
+            view.position((int) entry.offset).limit((int) (entry.offset + entry.length));
+        }
+        byte[] json = new byte[entry.length];
+        view.get(json);
+        return RestClient.JSON_MAPPER.readValue(json, Article.class);
+    }
+
+    private void loadIndex() throws IOException {
+        long size = indexChannel.size();
+        long complete = size - size % INDEX_ENTRY_SIZE;
+        if (complete != size) {
+            // An interrupted append left a partial entry; drop it
+            indexChannel.truncate(complete);
+        }
+        if (complete == 0) {
+            return;
+        }
+        MappedByteBuffer buffer = indexChannel.map(FileChannel.MapMode.READ_ONLY, 0, complete);
+        byte[] id = new byte[MAX_ID_BYTES];
+        while (buffer.remaining() >= INDEX_ENTRY_SIZE) {
+            int idLength = buffer.get() & 0xFF;
+            buffer.get(id);
+            IndexEntry entry = new IndexEntry(buffer.getLong(), buffer.getInt(), buffer.getLong(), buffer.getLong());
+            index.put(new String(id, 0, idLength, StandardCharsets.UTF_8), entry);
+            watermark = Math.max(watermark, entry.createdAt);
+        }
+        logger.debug("Loaded article mirror index: {} articles", index.size());
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static long millis(Instant instant) {
+        return instant == null ? NO_TIME : instant.toEpochMilli();
+    }
+}
@@ -0,0 +1,46 @@
+package com.newswebsite.client.rest;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Article category as returned by the REST service
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Category {
+
+    private String id;
+    private String name;
+    private String description;
+    private Instant createdAt;
+    private Integer articleCount;
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+
+    /**
+     * Number of articles, only present in the /categories listing
+     */
+    public Integer getArticleCount() { return articleCount; }
+    public void setArticleCount(Integer articleCount) { this.articleCount = articleCount; }
+
+    /**
+     * Prisma returns the article count as {@code _count: { articles: n }}
+     */
+    @JsonProperty("_count")
+    private void unpackCount(Map<String, Object> count) {
+        Object articles = count != null ? count.get("articles") : null;
+        if (articles != null) {
+            this.articleCount = Integer.valueOf(articles.toString());
+        }
+    }
+}
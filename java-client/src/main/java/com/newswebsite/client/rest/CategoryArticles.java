@@ -0,0 +1,23 @@
+package com.newswebsite.client.rest;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.List;
+
+/**
+ * One category and its latest articles, from /articles/by-category
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CategoryArticles {
+
+    private Category category;
+    private List<Article> articles;
+    private int articleCount;
+
+    public Category getCategory() { return category; }
+    public void setCategory(Category category) { this.category = category; }
+    public List<Article> getArticles() { return articles; }
+    public void setArticles(List<Article> articles) { this.articles = articles; }
+    public int getArticleCount() { return articleCount; }
+    public void setArticleCount(int articleCount) { this.articleCount = articleCount; }
+}
@@ -0,0 +1,29 @@
+package com.newswebsite.client.rest;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Pagination block of the paged REST listings
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Pagination {
+
+    private int page;
+    private int limit;
+    private int total;
+    private int pages;
+
+    public int getPage() { return page; }
+    public void setPage(int page) { this.page = page; }
+    public int getLimit() { return limit; }
+    public void setLimit(int limit) { this.limit = limit; }
+    public int getTotal() { return total; }
+    public void setTotal(int total) { this.total = total; }
+    public int getPages() { return pages; }
+    public void setPages(int pages) { this.pages = pages; }
+
+    @Override
+    public String toString() {
+        return "page " + page + "/" + pages + " (" + total + " total, " + limit + " per page)";
+    }
+}
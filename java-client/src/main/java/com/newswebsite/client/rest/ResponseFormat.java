@@ -0,0 +1,29 @@
+package com.newswebsite.client.rest;
+
+/**
+ * Representation requested from the REST service through the {@code Accept} header
+ */
+public enum ResponseFormat {
+    JSON("application/json"),
+    XML("application/xml");
+
+    private final String mediaType;
+
+    ResponseFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Format of a response body from its Content-Type, or the fallback when the header is missing
+     */
+    public static ResponseFormat fromContentType(String contentType, ResponseFormat fallback) {
+        if (contentType == null || contentType.isEmpty()) {
+            return fallback;
+        }
+        return contentType.toLowerCase().contains("xml") ? XML : JSON;
+    }
+}
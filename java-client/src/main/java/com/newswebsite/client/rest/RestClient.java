@@ -0,0 +1,428 @@
+package com.newswebsite.client.rest;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.fasterxml.jackson.dataformat.xml.deser.FromXmlParser;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import okhttp3.ConnectionPool;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Typed client for the read endpoints of the REST articles API.
+ *
+ * All instances share one OkHttp connection pool. Article lists are decoded with
+ * Jackson's streaming parser and handed over one article at a time, so a large
+ * listing is never held in memory as a whole.
+ *
+ * Each endpoint can be read as JSON or XML (see {@link #setFormat}); both go through
+ * the same streaming decoder and return the same types.
+ */
+public class RestClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(RestClient.class);
+
+    public static final String DEFAULT_BASE_URL = "http://localhost:8081";
+
+    private static final OkHttpClient SHARED_HTTP_CLIENT = new OkHttpClient.Builder()
+        .connectionPool(new ConnectionPool(16, 5, TimeUnit.MINUTES))
+        .connectTimeout(10, TimeUnit.SECONDS)
+        .readTimeout(60, TimeUnit.SECONDS)
+        .build();
+
+    static final ObjectMapper JSON_MAPPER = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    // js2xmlparser repeats the element name for each list item, writes scalars as text
+    // and dates with Date.toString()
+    static final ObjectMapper XML_MAPPER = XmlMapper.builder()
+        .defaultUseWrapper(false)
+        .enable(FromXmlParser.Feature.EMPTY_ELEMENT_AS_NULL)
+        .enable(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY)
+        .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+        .addModule(new JavaTimeModule())
+        .addModule(new SimpleModule("js-dates").addDeserializer(Instant.class, new LenientInstantDeserializer()))
+        .build();
+
+    /**
+     * Endpoints whose response format can be chosen separately
+     */
+    public enum Endpoint {
+        ARTICLES,
+        USER_ARTICLES,
+        ARTICLES_BY_CATEGORY,
+        CATEGORIES
+    }
+
+    private final HttpUrl baseUrl;
+    private final OkHttpClient httpClient;
+    private final ResponseFormat defaultFormat;
+    private final Map<Endpoint, ResponseFormat> formats = new EnumMap<>(Endpoint.class);
+
+    public RestClient() {
+        this(DEFAULT_BASE_URL);
+    }
+
+    public RestClient(String baseUrl) {
+        this(baseUrl, SHARED_HTTP_CLIENT);
+    }
+
+    /**
+     * Use a customised client; build it from {@link #sharedHttpClient()}.newBuilder() to keep the shared pool
+     */
+    public RestClient(String baseUrl, OkHttpClient httpClient) {
+        this(baseUrl, httpClient, ResponseFormat.JSON);
+    }
+
+    public RestClient(String baseUrl, OkHttpClient httpClient, ResponseFormat defaultFormat) {
+        HttpUrl parsed = HttpUrl.parse(baseUrl);
+        if (parsed == null) {
+            throw new IllegalArgumentException("Invalid REST base URL: " + baseUrl);
+        }
+        this.baseUrl = parsed;
+        this.httpClient = httpClient;
+        this.defaultFormat = defaultFormat;
+    }
+
+    public static OkHttpClient sharedHttpClient() {
+        return SHARED_HTTP_CLIENT;
+    }
+
+    /**
+     * Request the endpoint in the given format; null restores the client default
+     */
+    public synchronized void setFormat(Endpoint endpoint, ResponseFormat format) {
+        if (format == null) {
+            formats.remove(endpoint);
+        } else {
+            formats.put(endpoint, format);
+        }
+    }
+
+    public synchronized ResponseFormat getFormat(Endpoint endpoint) {
+        return formats.getOrDefault(endpoint, defaultFormat);
+    }
+
+    /**
+     * GET /api/rest/articles - pass each article of the page to the consumer as soon as it is decoded
+     *
+     * @param published null for all articles
+     * @param category  null for all categories
+     */
+    public Pagination streamArticles(int page, int limit, Boolean published, String category,
+                                     Consumer<Article> consumer) throws IOException {
+        HttpUrl url = articlesUrl(page, limit, published, category);
+        try (Response response = execute(url, getFormat(Endpoint.ARTICLES)); JsonParser parser = openParser(response)) {
+            return readPage(parser, "articles", Article.class, consumer);
+        }
+    }
+
+    /**
+     * GET /api/rest/articles as a lazily decoded stream; close the stream to release the connection
+     */
+    public Stream<Article> articles(int page, int limit, Boolean published, String category) throws IOException {
+        HttpUrl url = articlesUrl(page, limit, published, category);
+        Response response = execute(url, getFormat(Endpoint.ARTICLES));
+        try {
+            JsonParser parser = openParser(response);
+            return streamArray(parser, "articles", Article.class).onClose(() -> {
+                try {
+                    parser.close();
+                } catch (IOException e) {
+                    logger.debug("Error closing article stream", e);
+                }
+                response.close();
+            });
+        } catch (IOException | RuntimeException e) {
+            response.close();
+            throw e;
+        }
+    }
+
+    /**
+     * GET /api/rest/users/:id/articles - pass each article of the page to the consumer
+     */
+    public Pagination streamUserArticles(String userId, int page, int limit, Boolean published,
+                                         Consumer<Article> consumer) throws IOException {
+        HttpUrl.Builder url = baseUrl.newBuilder()
+            .addPathSegments("api/rest/users")
+            .addPathSegment(userId)
+            .addPathSegment("articles")
+            .addQueryParameter("page", String.valueOf(page))
+            .addQueryParameter("limit", String.valueOf(limit));
+        if (published != null) {
+            url.addQueryParameter("published", published.toString());
+        }
+        try (Response response = execute(url.build(), getFormat(Endpoint.USER_ARTICLES)); JsonParser parser = openParser(response)) {
+            return readPage(parser, "articles", Article.class, consumer);
+        }
+    }
+
+    /**
+     * GET /api/rest/articles/by-category - pass each category group to the consumer
+     */
+    public void streamArticlesByCategory(boolean published, Consumer<CategoryArticles> consumer) throws IOException {
+        HttpUrl url = baseUrl.newBuilder()
+            .addPathSegments("api/rest/articles/by-category")
+            .addQueryParameter("published", String.valueOf(published))
+            .build();
+        try (Response response = execute(url, getFormat(Endpoint.ARTICLES_BY_CATEGORY)); JsonParser parser = openParser(response)) {
+            readPage(parser, "categoriesWithArticles", CategoryArticles.class, consumer);
+        }
+    }
+
+    /**
+     * GET /api/rest/categories
+     */
+    public List<Category> getCategories() throws IOException {
+        HttpUrl url = baseUrl.newBuilder().addPathSegments("api/rest/categories").build();
+        List<Category> categories = new ArrayList<>();
+        try (Response response = execute(url, getFormat(Endpoint.CATEGORIES)); JsonParser parser = openParser(response)) {
+            readPage(parser, "categories", Category.class, categories::add);
+        }
+        return categories;
+    }
+
+    /**
+     * Raw body of GET /api/rest/articles in the given format, for measurements
+     */
+    byte[] fetchArticlesBody(int page, int limit, ResponseFormat format) throws IOException {
+        try (Response response = execute(articlesUrl(page, limit, null, null), format)) {
+            ResponseBody body = response.body();
+            if (body == null) {
+                throw new RestClientException(response.code(), "Empty response body");
+            }
+            return body.bytes();
+        }
+    }
+
+    private HttpUrl articlesUrl(int page, int limit, Boolean published, String category) {
+        HttpUrl.Builder url = baseUrl.newBuilder()
+            .addPathSegments("api/rest/articles")
+            .addQueryParameter("page", String.valueOf(page))
+            .addQueryParameter("limit", String.valueOf(limit));
+        if (published != null) {
+            url.addQueryParameter("published", published.toString());
+        }
+        if (category != null && !category.trim().isEmpty()) {
+            url.addQueryParameter("category", category.trim());
+        }
+        return url.build();
+    }
+
+    private Response execute(HttpUrl url, ResponseFormat format) throws IOException {
+        Request request = new Request.Builder()
+            .url(url)
+            .header("Accept", format.getMediaType())
+            .get()
+            .build();
+        Response response = httpClient.newCall(request).execute();
+        if (!response.isSuccessful()) {
+            try {
+                throw new RestClientException(response.code(), errorMessage(response));
+            } finally {
+                response.close();
+            }
+        }
+        return response;
+    }
+
+    private static String errorMessage(Response response) {
+        try {
+            ResponseBody body = response.body();
+            if (body != null) {
+                JsonNode node = mapperFor(response).readTree(body.byteStream());
+                if (node != null && node.hasNonNull("error")) {
+                    return node.get("error").asText();
+                }
+            }
+        } catch (IOException e) {
+            // Body is not JSON or XML, fall back to the status message
+        }
+        return response.message();
+    }
+
+    private static JsonParser openParser(Response response) throws IOException {
+        ResponseBody body = response.body();
+        if (body == null) {
+            throw new RestClientException(response.code(), "Empty response body");
+        }
+        return createParser(ResponseFormat.fromContentType(response.header("Content-Type"), ResponseFormat.JSON), body.byteStream());
+    }
+
+    private static ObjectMapper mapperFor(Response response) {
+        return mapper(ResponseFormat.fromContentType(response.header("Content-Type"), ResponseFormat.JSON));
+    }
+
+    static ObjectMapper mapper(ResponseFormat format) {
+        return format == ResponseFormat.XML ? XML_MAPPER : JSON_MAPPER;
+    }
+
+    /**
+     * Streaming parser for a body; XML documents are exposed as JSON tokens with the root element as the top-level object
+     */
+    static JsonParser createParser(ResponseFormat format, InputStream body) throws IOException {
+        return mapper(format).createParser(body);
+    }
+
+    /**
+     * Walk the top-level object, decoding the elements of arrayField one by one and the pagination block if present
+     */
+    static <T> Pagination readPage(JsonParser parser, String arrayField, Class<T> type, Consumer<T> consumer) throws IOException {
+        expect(parser.nextToken(), JsonToken.START_OBJECT);
+        Pagination pagination = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (arrayField.equals(field) && value == JsonToken.START_ARRAY) {
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    consumer.accept(parser.readValueAs(type));
+                }
+            } else if (arrayField.equals(field) && value == JsonToken.START_OBJECT) {
+                // XML: one element per item, named after the list
+                consumer.accept(parser.readValueAs(type));
+            } else if ("pagination".equals(field) && value == JsonToken.START_OBJECT) {
+                pagination = parser.readValueAs(Pagination.class);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return pagination;
+    }
+
+    /**
+     * Position the parser on arrayField and expose its elements as a stream decoded on demand
+     */
+    static <T> Stream<T> streamArray(JsonParser parser, String arrayField, Class<T> type) throws IOException {
+        expect(parser.nextToken(), JsonToken.START_OBJECT);
+        JsonToken found = null;
+        while (found == null && parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (arrayField.equals(field) && (value == JsonToken.START_ARRAY || value == JsonToken.START_OBJECT)) {
+                found = value;
+            } else {
+                parser.skipChildren();
+            }
+        }
+        if (found == null) {
+            return Stream.empty();
+        }
+        // In XML the items are repeated elements rather than an array, and the first one is already open
+        boolean repeated = found == JsonToken.START_OBJECT;
+
+        Iterator<T> iterator = new Iterator<T>() {
+            private JsonToken next = repeated ? JsonToken.START_OBJECT : null;
+
+            @Override
+            public boolean hasNext() {
+                try {
+                    if (next == null) {
+                        next = repeated ? nextRepeatedElement() : parser.nextToken();
+                    }
+                    return repeated ? next == JsonToken.START_OBJECT : next != null && next != JsonToken.END_ARRAY;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            private JsonToken nextRepeatedElement() throws IOException {
+                if (parser.nextToken() == JsonToken.FIELD_NAME && arrayField.equals(parser.getCurrentName())) {
+                    return parser.nextToken();
+                }
+                return JsonToken.END_OBJECT;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                next = null;
+                try {
+                    return parser.readValueAs(type);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected) throws RestClientException {
+        if (actual != expected) {
+            throw new RestClientException(0, "Unexpected JSON: expected " + expected + " but found " + actual);
+        }
+    }
+
+    /**
+     * Accepts ISO-8601 dates (JSON) and JavaScript Date.toString() output (XML), e.g.
+     * {@code Tue Jan 02 2024 10:00:00 GMT+0000 (Coordinated Universal Time)}, which has no milliseconds
+     */
+    private static final class LenientInstantDeserializer extends StdScalarDeserializer<Instant> {
+
+        private static final long serialVersionUID = 1L;
+
+        private static final DateTimeFormatter JS_DATE = DateTimeFormatter.ofPattern("EEE MMM dd yyyy HH:mm:ss 'GMT'xx", Locale.ENGLISH);
+
+        LenientInstantDeserializer() {
+            super(Instant.class);
+        }
+
+        @Override
+        public Instant deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.hasToken(JsonToken.VALUE_NUMBER_INT)) {
+                return Instant.ofEpochMilli(parser.getLongValue());
+            }
+            String text = parser.getValueAsString();
+            if (text == null || text.trim().isEmpty()) {
+                return null;
+            }
+            text = text.trim();
+            try {
+                return Instant.parse(text);
+            } catch (DateTimeParseException e) {
+                int zoneName = text.indexOf(" (");
+                try {
+                    return OffsetDateTime.parse(zoneName > 0 ? text.substring(0, zoneName) : text, JS_DATE).toInstant();
+                } catch (DateTimeParseException e2) {
+                    return (Instant) context.handleWeirdStringValue(Instant.class, text, "not an ISO-8601 or JavaScript date");
+                }
+            }
+        }
+    }
+}
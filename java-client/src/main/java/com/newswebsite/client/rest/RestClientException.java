@@ -0,0 +1,25 @@
+package com.newswebsite.client.rest;
+
+import java.io.IOException;
+
+/**
+ * Error response or unreadable body from the REST service
+ */
+public class RestClientException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int statusCode;
+
+    public RestClientException(int statusCode, String message) {
+        super(statusCode > 0 ? "HTTP " + statusCode + ": " + message : message);
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * HTTP status, or 0 when the error is not tied to a response status
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+}
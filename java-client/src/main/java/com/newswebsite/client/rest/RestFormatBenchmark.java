@@ -0,0 +1,235 @@
+package com.newswebsite.client.rest;
+
+import com.fasterxml.jackson.core.JsonParser;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Compares the JSON and XML representations of an article page: bytes on the wire,
+ * decode time and bytes allocated per decode.
+ *
+ * Each body is fetched once, then decoded repeatedly from memory with the same streaming
+ * path as {@link RestClient}, so the rest-service rate limit is not a concern. With
+ * {@code --synthetic} the bodies are generated locally in the shape the service produces.
+ *
+ * Usage: {@code RestFormatBenchmark [baseUrl | --synthetic] [articles] [iterations]}
+ */
+public class RestFormatBenchmark {
+
+    private static final DateTimeFormatter JS_DATE =
+        DateTimeFormatter.ofPattern("EEE MMM dd yyyy HH:mm:ss 'GMT'xx '(Coordinated Universal Time)'", Locale.ENGLISH)
+            .withZone(ZoneOffset.UTC);
+
+    public static void main(String[] args) throws Exception {
+        boolean synthetic = args.length > 0 && "--synthetic".equals(args[0]);
+        // --synthetic takes the place of the base URL
+        String baseUrl = !synthetic && args.length > 0 ? args[0] : RestClient.DEFAULT_BASE_URL;
+        int articles = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+
+        Map<ResponseFormat, byte[]> bodies = new EnumMap<>(ResponseFormat.class);
+        if (synthetic) {
+            List<Map<String, Object>> sample = sampleArticles(articles);
+            bodies.put(ResponseFormat.JSON, syntheticJson(sample));
+            bodies.put(ResponseFormat.XML, syntheticXml(sample));
+        } else {
+            RestClient client = new RestClient(baseUrl);
+            for (ResponseFormat format : ResponseFormat.values()) {
+                bodies.put(format, client.fetchArticlesBody(1, articles, format));
+            }
+        }
+
+        System.out.printf("%s article page, %d decodes per format%n", synthetic ? "Synthetic" : baseUrl, iterations);
+        for (ResponseFormat format : ResponseFormat.values()) {
+            report(format, bodies.get(format), iterations);
+        }
+    }
+
+    private static void report(ResponseFormat format, byte[] body, int iterations) throws IOException {
+        int count = decode(format, body);
+        // Warm up the decoder before measuring
+        for (int i = 0; i < Math.max(iterations / 2, 10); i++) {
+            decode(format, body);
+        }
+
+        com.sun.management.ThreadMXBean threads = allocationCounter();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads != null ? threads.getThreadAllocatedBytes(threadId) : -1;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            decode(format, body);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads != null ? threads.getThreadAllocatedBytes(threadId) - allocatedBefore : -1;
+
+        double seconds = elapsed / 1e9;
+        double millisPerDecode = elapsed / 1e6 / iterations;
+        System.out.printf("%-4s %,d bytes (%,d B/article), decode %.3f ms (%.1f MB/s)",
+            format, body.length, count == 0 ? 0 : body.length / count, millisPerDecode,
+            (double) body.length * iterations / seconds / 1e6);
+        if (allocated >= 0) {
+            System.out.printf(", %,d bytes allocated per decode (%.1f MB/s)",
+                allocated / iterations, allocated / seconds / 1e6);
+        }
+        System.out.printf(" - %d articles%n", count);
+    }
+
+    private static int decode(ResponseFormat format, byte[] body) throws IOException {
+        int[] count = {0};
+        try (JsonParser parser = RestClient.createParser(format, new ByteArrayInputStream(body))) {
+            RestClient.readPage(parser, "articles", Article.class, article -> count[0]++);
+        }
+        return count[0];
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            if (threads.isThreadAllocatedMemorySupported()) {
+                threads.setThreadAllocatedMemoryEnabled(true);
+                return threads;
+            }
+        }
+        return null;
+    }
+
+    private static List<Map<String, Object>> sampleArticles(int count) {
+        List<Map<String, Object>> articles = new ArrayList<>(count);
+        Instant now = Instant.parse("2024-06-01T12:00:00.000Z");
+        for (int i = 0; i < count; i++) {
+            Instant created = now.minusSeconds(3600L * i);
+            Map<String, Object> author = new LinkedHashMap<>();
+            author.put("id", "cluser" + (i % 20) + "000000000000000");
+            author.put("username", "author" + (i % 20));
+            author.put("email", "author" + (i % 20) + "@example.com");
+
+            Map<String, Object> category = new LinkedHashMap<>();
+            category.put("id", "clcat" + (i % 5) + "0000000000000000");
+            category.put("name", "Category " + (i % 5));
+            category.put("description", "Articles about topic " + (i % 5));
+            category.put("createdAt", now.minusSeconds(86_400L * 365));
+            category.put("updatedAt", now.minusSeconds(86_400L * 365));
+
+            Map<String, Object> article = new LinkedHashMap<>();
+            article.put("id", String.format("clart%020d", i));
+            article.put("title", "Article number " + i + " about current events");
+            article.put("content", paragraph(i, 1500));
+            article.put("summary", paragraph(i, 200));
+            article.put("published", i % 4 != 0);
+            article.put("createdAt", created);
+            article.put("updatedAt", created.plusSeconds(600));
+            article.put("authorId", author.get("id"));
+            article.put("categoryId", category.get("id"));
+            article.put("author", author);
+            article.put("category", category);
+            articles.add(article);
+        }
+        return articles;
+    }
+
+    private static String paragraph(int seed, int length) {
+        StringBuilder text = new StringBuilder(length);
+        String[] words = {"the", "news", "report", "city", "council", "market", "weather", "sport", "today", "said"};
+        int i = seed;
+        while (text.length() < length) {
+            text.append(words[Math.floorMod(i * 31 + 7, words.length)]).append(' ');
+            i++;
+        }
+        return text.toString().trim();
+    }
+
+    private static Map<String, Object> page(List<Map<String, Object>> articles, Function<Instant, String> dates) {
+        List<Object> converted = new ArrayList<>(articles.size());
+        for (Map<String, Object> article : articles) {
+            converted.add(convertDates(article, dates));
+        }
+        Map<String, Object> pagination = new LinkedHashMap<>();
+        pagination.put("page", 1);
+        pagination.put("limit", articles.size());
+        pagination.put("total", articles.size());
+        pagination.put("pages", 1);
+
+        Map<String, Object> page = new LinkedHashMap<>();
+        page.put("articles", converted);
+        page.put("pagination", pagination);
+        return page;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object convertDates(Object value, Function<Instant, String> dates) {
+        if (value instanceof Instant) {
+            return dates.apply((Instant) value);
+        }
+        if (value instanceof Map) {
+            Map<String, Object> copy = new LinkedHashMap<>();
+            ((Map<String, Object>) value).forEach((key, child) -> copy.put(key, convertDates(child, dates)));
+            return copy;
+        }
+        return value;
+    }
+
+    /**
+     * Same shape as Express res.json(): ISO-8601 dates with milliseconds
+     */
+    private static byte[] syntheticJson(List<Map<String, Object>> articles) throws IOException {
+        return RestClient.JSON_MAPPER.writeValueAsBytes(page(articles, Instant::toString));
+    }
+
+    /**
+     * Same shape as js2xmlparser with pretty printing: list items repeat the element name, dates use Date.toString()
+     */
+    private static byte[] syntheticXml(List<Map<String, Object>> articles) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            XMLStreamWriter xml = XMLOutputFactory.newFactory().createXMLStreamWriter(out, "UTF-8");
+            xml.writeStartDocument("UTF-8", "1.0");
+            writeElement(xml, "articlesResponse", page(articles, JS_DATE::format), 0);
+            xml.writeEndDocument();
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void writeElement(XMLStreamWriter xml, String name, Object value, int depth) throws XMLStreamException {
+        if (value instanceof List) {
+            for (Object item : (List<Object>) value) {
+                writeElement(xml, name, item, depth);
+            }
+            return;
+        }
+        xml.writeCharacters("\n" + indent(depth));
+        xml.writeStartElement(name);
+        if (value instanceof Map) {
+            for (Map.Entry<String, Object> child : ((Map<String, Object>) value).entrySet()) {
+                writeElement(xml, child.getKey(), child.getValue(), depth + 1);
+            }
+            xml.writeCharacters("\n" + indent(depth));
+        } else if (value != null) {
+            xml.writeCharacters(String.valueOf(value));
+        }
+        xml.writeEndElement();
+    }
+
+    private static String indent(int depth) {
+        return new String(new char[depth * 4]).replace('\0', ' ');
+    }
+}
@@ -0,0 +1,72 @@
+package com.newswebsite.client.soap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors used to run blocking SOAP calls off the caller's thread.
+ */
+public final class SoapCallExecutors {
+
+    private static final Logger logger = LoggerFactory.getLogger(SoapCallExecutors.class);
+
+    private SoapCallExecutors() {
+    }
+
+    /**
+     * Virtual threads when the running JDK supports them, otherwise a bounded pool of platform threads
+     */
+    public static ExecutorService newDefaultExecutor(int maxPlatformThreads) {
+        ExecutorService executor = newVirtualThreadExecutor();
+        if (executor != null) {
+            logger.debug("Running SOAP calls on virtual threads");
+            return executor;
+        }
+        logger.debug("Virtual threads unavailable, running SOAP calls on {} platform threads", maxPlatformThreads);
+        return newBoundedExecutor(maxPlatformThreads, "soap-call");
+    }
+
+    /**
+     * One virtual thread per task, or null if the JDK does not support virtual threads.
+     * Looked up reflectively because the client is compiled for Java 11.
+     */
+    public static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Fixed number of daemon platform threads with an unbounded work queue
+     */
+    public static ExecutorService newBoundedExecutor(int threads, String namePrefix) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), daemonThreadFactory(namePrefix));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Named daemon threads, so background SOAP work never keeps the JVM alive
+     */
+    public static ThreadFactory daemonThreadFactory(String namePrefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,34 @@
+package com.newswebsite.client.soap;
+
+import javax.xml.ws.WebServiceException;
+
+/**
+ * Thrown instead of calling the service while the circuit breaker is open, or half-open
+ * with its trial call still in flight
+ */
+public class SoapCircuitOpenException extends WebServiceException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final CircuitBreaker.State state;
+    private final long retryAfterMillis;
+
+    public SoapCircuitOpenException(CircuitBreaker.State state, long retryAfterMillis) {
+        super(state == CircuitBreaker.State.HALF_OPEN
+            ? "SOAP service is failing; calls are suspended until the trial call completes"
+            : "SOAP service is failing; calls are suspended for " + retryAfterMillis + " ms");
+        this.state = state;
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    public CircuitBreaker.State getState() {
+        return state;
+    }
+
+    /**
+     * Time until a trial call is let through, 0 when half-open
+     */
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+}
@@ -1,47 +1,204 @@
 package com.newswebsite.client.soap;
 
 import com.newswebsite.client.soap.generated.*;
+import com.sun.xml.ws.developer.JAXWSProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.xml.namespace.QName;
+import javax.xml.transform.Source;
+import javax.xml.ws.BindingProvider;
+import javax.xml.ws.Dispatch;
 import javax.xml.ws.Service;
+import javax.xml.ws.handler.Handler;
+import javax.xml.ws.handler.MessageContext;
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
 import java.net.URL;
+import javax.xml.ws.ProtocolException;
+import javax.xml.ws.WebServiceException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 public class SoapClient {
     
     private static final Logger logger = LoggerFactory.getLogger(SoapClient.class);
     private static final String NAMESPACE_URI = "http://localhost:8080/soap";
     private static final String SERVICE_NAME = "UserService";
+    private static final String BUNDLED_WSDL = "/userService.wsdl";
+    private static final QName PORT_NAME = new QName(NAMESPACE_URI, "UserServiceSoapPort");
+    // Read-only operations, safe to send again after a transport failure
+    private static final Set<String> IDEMPOTENT_OPERATIONS = Set.of("getUsers", "getUserById");
     
     protected final String serviceUrl;
     protected final String wsdlUrl;
-    protected UserServiceSoap userService;
-    protected String authToken;
+    protected final int poolSize;
+    protected final SoapClientConfig config;
+    protected volatile UserServicePortPool portPool;
+    protected volatile StreamingUsersDispatch streamingDispatch;
+    protected volatile String authToken;
+    
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong timeToFirstCallMillis = new AtomicLong(-1);
+    private final CompletableFuture<UserServicePortPool> initialization;
+    private final SoapMetricsHandler metricsHandler;
+    private final CircuitBreaker circuitBreaker;
+    private final ReentrantLock reconnectLock = new ReentrantLock();
+    private volatile long nextReconnectNanos = System.nanoTime();
+    // Calls that identical calls can join, by operation, request key and write generation
+    private final ConcurrentMap<List<Object>, CompletableFuture<Object>> sharedCalls = new ConcurrentHashMap<>();
+    // Bumped when a write completes, so that a read made after it never joins one started before
+    private final AtomicLong writeGeneration = new AtomicLong();
     
     public SoapClient() {
-        this("http://localhost:8080/soap");
+        this(SoapClientConfig.defaults());
     }
     
     public SoapClient(String serviceUrl) {
-        this.serviceUrl = serviceUrl;
+        this(SoapClientConfig.defaults().withServiceUrl(serviceUrl));
+    }
+    
+    public SoapClient(String serviceUrl, int poolSize) {
+        this(SoapClientConfig.defaults().withServiceUrl(serviceUrl).withPoolSize(poolSize));
+    }
+    
+    public SoapClient(SoapClientConfig config) {
+        this.config = config;
+        this.serviceUrl = config.getServiceUrl();
         this.wsdlUrl = serviceUrl + "?wsdl";
-        initializeService();
+        this.poolSize = config.getPoolSize();
+        this.metricsHandler = config.isMetricsEnabled()
+            ? new SoapMetricsHandler(SoapMetrics.getDefault(), config.getMetricsPayloadSample())
+            : null;
+        this.circuitBreaker = new CircuitBreaker("SOAP " + serviceUrl, config.getCircuitFailureThreshold(),
+            config.getCircuitOpenMillis());
+        applyKeepAliveLimit(config);
+        if (config.getWsdlMode() == SoapClientConfig.WsdlMode.BUNDLED) {
+            // The bundled WSDL needs no network; build the service off the caller's thread
+            initialization = CompletableFuture.supplyAsync(this::initializeService, runnable -> {
+                Thread thread = new Thread(runnable, "soap-client-init");
+                thread.setDaemon(true);
+                thread.start();
+            });
+        } else {
+            initialization = CompletableFuture.completedFuture(initializeService());
+        }
     }
     
-    private void initializeService() {
+    /**
+     * Use ports from an existing pool instead of loading the WSDL, e.g. in-process stubs
+     */
+    public SoapClient(SoapClientConfig config, UserServicePortPool portPool) {
+        this.config = config;
+        this.serviceUrl = config.getServiceUrl();
+        this.wsdlUrl = serviceUrl + "?wsdl";
+        this.poolSize = portPool.getMaxSize();
+        this.portPool = portPool;
+        this.initialization = CompletableFuture.completedFuture(portPool);
+        this.metricsHandler = null;
+        this.circuitBreaker = new CircuitBreaker("SOAP " + serviceUrl, config.getCircuitFailureThreshold(),
+            config.getCircuitOpenMillis());
+    }
+    
+    private UserServicePortPool initializeService() {
         try {
-            URL wsdlLocation = new URL(wsdlUrl);
             QName serviceName = new QName(NAMESPACE_URI, SERVICE_NAME);
-            Service service = Service.create(wsdlLocation, serviceName);
-            userService = service.getPort(UserServiceSoap.class);
-            logger.info("SOAP service initialized successfully");
+            Service service;
+            if (config.getWsdlMode() == SoapClientConfig.WsdlMode.BUNDLED) {
+                URL wsdlLocation = SoapClient.class.getResource(BUNDLED_WSDL);
+                if (wsdlLocation == null) {
+                    throw new IllegalStateException("Bundled WSDL " + BUNDLED_WSDL + " not found on the classpath");
+                }
+                service = Service.create(wsdlLocation, serviceName);
+            } else {
+                service = Service.create(new URL(wsdlUrl), serviceName);
+            }
+            // Ports and dispatches are created lazily on first use and pointed at the configured URL
+            UserServicePortPool pool = new UserServicePortPool(() -> {
+                UserServiceSoap port = service.getPort(PORT_NAME, UserServiceSoap.class);
+                configureBinding((BindingProvider) port, null);
+                return port;
+            }, poolSize, config.getPoolBorrowTimeoutMillis());
+            // Create the first port eagerly so that a broken WSDL is reported here
+            pool.release(pool.borrow());
+            streamingDispatch = new StreamingUsersDispatch(() -> {
+                Dispatch<Source> dispatch = service.createDispatch(PORT_NAME, Source.class, Service.Mode.PAYLOAD);
+                configureBinding(dispatch, "getUsers");
+                Map<String, Object> context = dispatch.getRequestContext();
+                context.put(BindingProvider.SOAPACTION_USE_PROPERTY, Boolean.TRUE);
+                context.put(BindingProvider.SOAPACTION_URI_PROPERTY, "getUsers");
+                return dispatch;
+            }, poolSize);
+            portPool = pool;
+            logger.info("SOAP service initialized from {} WSDL in {} ms (port pool size: {})",
+                config.getWsdlMode().name().toLowerCase(), elapsedMillis(), poolSize);
+            return pool;
         } catch (Exception e) {
             logger.warn("Could not initialize SOAP service: " + e.getMessage());
-            logger.warn("The application will start but SOAP functionality will be unavailable until the service is running.");
+            logger.warn("The application will start; the client reconnects on the next call once the service is running.");
             // Ne pas lancer d'exception pour permettre à l'application de démarrer
-            userService = null;
+            portPool = null;
+            nextReconnectNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getReconnectIntervalMillis());
+            return null;
+        }
+    }
+    
+    /**
+     * Transport settings shared by proxy ports and dispatches: endpoint, timeouts, keep-alive and compression
+     */
+    private void configureBinding(BindingProvider binding, String operation) {
+        Map<String, Object> context = binding.getRequestContext();
+        context.put(BindingProvider.ENDPOINT_ADDRESS_PROPERTY, serviceUrl);
+        context.put(JAXWSProperties.CONNECT_TIMEOUT, config.getConnectTimeoutMillis());
+        context.put(JAXWSProperties.REQUEST_TIMEOUT, config.getRequestTimeoutMillis(operation));
+        
+        Map<String, List<String>> headers = new HashMap<>();
+        if (config.isGzipResponses()) {
+            headers.put("Accept-Encoding", Collections.singletonList("gzip"));
+        }
+        if (config.isGzipRequests()) {
+            // JAX-WS RI compresses the body when this header is present
+            headers.put("Content-Encoding", Collections.singletonList("gzip"));
+        }
+        if (!config.isKeepAlive()) {
+            headers.put("Connection", Collections.singletonList("close"));
+        }
+        if (!headers.isEmpty()) {
+            context.put(MessageContext.HTTP_REQUEST_HEADERS, headers);
+        }
+        
+        if (metricsHandler != null) {
+            @SuppressWarnings("rawtypes")
+            List<Handler> chain = binding.getBinding().getHandlerChain();
+            chain.add(metricsHandler);
+            binding.getBinding().setHandlerChain(chain);
+        }
+    }
+    
+    /**
+     * HttpURLConnection keeps at most http.maxConnections idle connections per server (5 by default),
+     * fewer than a large port pool needs. The property is JVM-wide and read once, so an explicit
+     * -Dhttp.maxConnections wins and the value only applies if set before the first HTTP call.
+     */
+    private static void applyKeepAliveLimit(SoapClientConfig config) {
+        if (config.isKeepAlive() && System.getProperty("http.maxConnections") == null) {
+            System.setProperty("http.maxConnections", String.valueOf(config.getMaxKeepAliveConnections()));
         }
     }
     
@@ -49,7 +206,255 @@ public class SoapClient {
      * Check if SOAP service is available
      */
     public boolean isServiceAvailable() {
-        return userService != null;
+        return awaitPool() != null;
+    }
+    
+    /**
+     * State of the circuit breaker guarding calls to the service
+     */
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+    
+    /**
+     * Per-operation call metrics, shared by all clients of the JVM and also exposed over JMX
+     */
+    public SoapMetrics getMetrics() {
+        return SoapMetrics.getDefault();
+    }
+    
+    /**
+     * Time between client creation and the first completed SOAP call, or -1 if none has completed yet
+     */
+    public long getTimeToFirstCallMillis() {
+        return timeToFirstCallMillis.get();
+    }
+    
+    /**
+     * Run a call on a port borrowed from the pool, with the read timeout configured for the operation.
+     * Goes through the circuit breaker; idempotent operations are retried after transport failures.
+     */
+    protected <T> T callService(String operation, Function<UserServiceSoap, T> call) {
+        if (!IDEMPOTENT_OPERATIONS.contains(operation)) {
+            try {
+                return callWithRetry(operation, call);
+            } finally {
+                // Even a failed write may have reached the service
+                writeGeneration.incrementAndGet();
+            }
+        }
+        return callWithRetry(operation, call);
+    }
+    
+    private <T> T callWithRetry(String operation, Function<UserServiceSoap, T> call) {
+        UserServicePortPool pool = requirePool();
+        int maxAttempts = IDEMPOTENT_OPERATIONS.contains(operation) ? Math.max(1, config.getRetryMaxAttempts()) : 1;
+        for (int attempt = 1; ; attempt++) {
+            boolean[] sent = {false};
+            try {
+                T result = guarded(() -> pool.execute(port -> {
+                    if (port instanceof BindingProvider) {
+                        ((BindingProvider) port).getRequestContext()
+                            .put(JAXWSProperties.REQUEST_TIMEOUT, config.getRequestTimeoutMillis(operation));
+                    }
+                    sent[0] = true;
+                    return call.apply(port);
+                }), sent);
+                recordFirstCall();
+                return result;
+            } catch (WebServiceException e) {
+                if (!sent[0] || !isTransportFailure(e) || attempt >= maxAttempts) {
+                    throw e;
+                }
+                backOff(operation, attempt, e);
+            }
+        }
+    }
+    
+    /**
+     * Like {@link #callService}, but a call made while an identical one (same operation and key)
+     * is in flight waits for it and gets the same response or exception, without a request of its own.
+     * Only idempotent operations are shared, and only if {@code soap.coalesce.reads} is on.
+     * A call never joins one that started before a write (addUser, updateUser, ...) of this
+     * client completed. The response object is shared too, so callers must not modify it.
+     * Joined calls are counted in the operation's metrics even when metrics are disabled.
+     *
+     * @param key everything that makes two requests of the operation identical, token included
+     */
+    @SuppressWarnings("unchecked")
+    protected <T> T callServiceShared(String operation, Object key, Function<UserServiceSoap, T> call) {
+        if (!config.isCoalesceReads() || !IDEMPOTENT_OPERATIONS.contains(operation)) {
+            return callService(operation, call);
+        }
+        List<Object> callKey = Arrays.asList(operation, key, writeGeneration.get());
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> leader = sharedCalls.putIfAbsent(callKey, flight);
+        if (leader != null) {
+            SoapMetrics.getDefault().forOperation(operation).callCoalesced();
+            return (T) awaitSharedCall(operation, leader);
+        }
+        try {
+            T result = callService(operation, call);
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            sharedCalls.remove(callKey, flight);
+        }
+    }
+    
+    private static Object awaitSharedCall(String operation, CompletableFuture<Object> leader) {
+        try {
+            return leader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WebServiceException("Interrupted while waiting for a shared " + operation + " call", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new WebServiceException(cause);
+        }
+    }
+    
+    /**
+     * getUsers with each user passed to the consumer as soon as it is decoded; the returned
+     * response carries success, error and pagination only.
+     * Without a streaming dispatch (custom port pool) the page is fetched through the proxy and replayed.
+     * A failed call is only retried if no user has reached the consumer yet.
+     */
+    protected GetUsersResponse streamUsersCall(GetUsersRequest request, Consumer<User> consumer) {
+        requirePool();
+        StreamingUsersDispatch dispatch = streamingDispatch;
+        if (dispatch == null) {
+            GetUsersResponse response = callService("getUsers", port -> port.getUsers(request));
+            response.getUsers().forEach(consumer);
+            return response;
+        }
+        int maxAttempts = Math.max(1, config.getRetryMaxAttempts());
+        boolean[] delivered = {false};
+        Consumer<User> tracking = user -> {
+            delivered[0] = true;
+            consumer.accept(user);
+        };
+        for (int attempt = 1; ; attempt++) {
+            try {
+                GetUsersResponse response = guarded(() -> dispatch.getUsers(request, tracking), new boolean[] {true});
+                recordFirstCall();
+                return response;
+            } catch (WebServiceException e) {
+                if (delivered[0] || !isTransportFailure(e) || attempt >= maxAttempts) {
+                    throw e;
+                }
+                backOff("getUsers", attempt, e);
+            }
+        }
+    }
+    
+    /**
+     * Run one attempt through the circuit breaker. Only a response counts as success and only
+     * transport failures count against the service: a SOAP fault or a decoding error means it
+     * answered. Anything else (no port, a bug in the call) says nothing about the service and is
+     * counted as cancelled.
+     *
+     * @param sent set by the attempt once the request is on its way; an attempt that never got a port is not counted
+     */
+    private <T> T guarded(Supplier<T> attempt, boolean[] sent) {
+        if (!circuitBreaker.tryAcquire()) {
+            throw new SoapCircuitOpenException(circuitBreaker.getState(), circuitBreaker.getRemainingOpenMillis());
+        }
+        try {
+            T result = attempt.get();
+            circuitBreaker.onSuccess();
+            return result;
+        } catch (WebServiceException e) {
+            if (!sent[0]) {
+                circuitBreaker.onCancelled();
+            } else if (isTransportFailure(e)) {
+                circuitBreaker.onFailure();
+            } else {
+                circuitBreaker.onSuccess();
+            }
+            throw e;
+        } catch (RuntimeException | Error e) {
+            circuitBreaker.onCancelled();
+            throw e;
+        }
+    }
+    
+    private static boolean isTransportFailure(WebServiceException e) {
+        // SOAPFaultException and HTTPException are protocol-level answers from the service
+        return !(e instanceof ProtocolException) && !(e instanceof SoapCircuitOpenException);
+    }
+    
+    /**
+     * Sleep before the next attempt: "full jitter", uniform in [0, min(max, base * 2^(attempt-1))]
+     * so that clients failing together do not retry together
+     */
+    private void backOff(String operation, int attempt, WebServiceException cause) {
+        long ceiling = Math.min(config.getRetryMaxBackoffMillis(),
+            (long) config.getRetryBackoffMillis() << Math.min(attempt - 1, 20));
+        long delay = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        logger.debug("{} attempt {} failed ({}), retrying in {} ms", operation, attempt, cause.getMessage(), delay);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+    
+    private void recordFirstCall() {
+        if (timeToFirstCallMillis.get() < 0 && timeToFirstCallMillis.compareAndSet(-1, elapsedMillis())) {
+            logger.info("First SOAP call completed {} ms after client start ({} WSDL)",
+                timeToFirstCallMillis.get(), config.getWsdlMode().name().toLowerCase());
+        }
+    }
+    
+    private UserServicePortPool requirePool() {
+        UserServicePortPool pool = awaitPool();
+        if (pool == null) {
+            throw new IllegalStateException("SOAP service is not available");
+        }
+        return pool;
+    }
+    
+    /**
+     * Port pool, waiting for background initialization. If initialization failed, try again,
+     * at most once per reconnect interval; meanwhile other callers get null right away.
+     */
+    private UserServicePortPool awaitPool() {
+        UserServicePortPool pool = portPool;
+        if (pool != null) {
+            return pool;
+        }
+        pool = initialization.join();
+        return pool != null ? pool : reconnect();
+    }
+    
+    private UserServicePortPool reconnect() {
+        if (System.nanoTime() - nextReconnectNanos < 0 || !reconnectLock.tryLock()) {
+            return portPool;
+        }
+        try {
+            if (portPool == null && System.nanoTime() - nextReconnectNanos >= 0) {
+                logger.info("Reconnecting to SOAP service at {}", serviceUrl);
+                initializeService();
+            }
+            return portPool;
+        } finally {
+            reconnectLock.unlock();
+        }
+    }
+    
+    private long elapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
     }
     
     /**
@@ -73,7 +478,7 @@ public class SoapClient {
             request.setUsername(username);
             request.setPassword(password);
             
-            AuthenticateUserResponse response = userService.authenticateUser(request);
+            AuthenticateUserResponse response = callService("authenticateUser", port -> port.authenticateUser(request));
             
             if (response.isSuccess()) {
                 this.authToken = response.getToken();
@@ -117,17 +522,19 @@ public class SoapClient {
                 request.setRole(role);
             }
             
-            GetUsersResponse response = userService.getUsers(request);
+            GetUsersResponse response = callService("getUsers", port -> port.getUsers(request));
             
             if (response.isSuccess()) {
                 List<User> users = response.getUsers();
-                System.out.println("\n=== Users List ===");
-                System.out.println("Total: " + response.getTotal() + ", Page: " + response.getPage() + ", Limit: " + response.getLimit());
-                System.out.println("ID\t\tUsername\t\tEmail\t\t\tRole\t\tCreated");
-                System.out.println("-------------------------------------------------------------------");
+                // One buffered writer for the whole listing instead of a flush per row; System.out is flushed, not closed
+                PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out), 64 * 1024));
+                out.println("\n=== Users List ===");
+                out.println("Total: " + response.getTotal() + ", Page: " + response.getPage() + ", Limit: " + response.getLimit());
+                out.println("ID\t\tUsername\t\tEmail\t\t\tRole\t\tCreated");
+                out.println("-------------------------------------------------------------------");
                 
                 for (User user : users) {
-                    System.out.printf("%-8s\t%-15s\t%-20s\t%-10s\t%s%n",
+                    out.printf("%-8s\t%-15s\t%-20s\t%-10s\t%s%n",
                         user.getId(),
                         user.getUsername(),
                         user.getEmail(),
@@ -135,6 +542,7 @@ public class SoapClient {
                         user.getCreatedAt()
                     );
                 }
+                out.flush();
             } else {
                 System.err.println("Error getting users: " + response.getError());
             }
@@ -163,7 +571,7 @@ public class SoapClient {
             request.setToken(authToken);
             request.setUserId(userId);
             
-            GetUserByIdResponse response = userService.getUserById(request);
+            GetUserByIdResponse response = callService("getUserById", port -> port.getUserById(request));
             
             if (response.isSuccess()) {
                 User user = response.getUser();
@@ -205,7 +613,7 @@ public class SoapClient {
             request.setPassword(password);
             request.setRole(role);
             
-            AddUserResponse response = userService.addUser(request);
+            AddUserResponse response = callService("addUser", port -> port.addUser(request));
             
             if (response.isSuccess()) {
                 User user = response.getUser();
@@ -248,7 +656,7 @@ public class SoapClient {
             }
             request.setRole(role);
             
-            UpdateUserResponse response = userService.updateUser(request);
+            UpdateUserResponse response = callService("updateUser", port -> port.updateUser(request));
             
             if (response.isSuccess()) {
                 User user = response.getUser();
@@ -285,7 +693,7 @@ public class SoapClient {
             request.setToken(authToken);
             request.setUserId(userId);
             
-            DeleteUserResponse response = userService.deleteUser(request);
+            DeleteUserResponse response = callService("deleteUser", port -> port.deleteUser(request));
             
             if (response.isSuccess()) {
                 System.out.println("User deleted successfully!");
@@ -312,6 +720,13 @@ public class SoapClient {
         return authToken;
     }
     
+    /**
+     * Use a token obtained earlier (e.g. by {@code soap auth login}) instead of authenticating
+     */
+    public void setAuthToken(String authToken) {
+        this.authToken = authToken;
+    }
+    
     /**
      * Logout user
      */
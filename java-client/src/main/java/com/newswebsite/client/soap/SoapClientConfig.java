@@ -0,0 +1,371 @@
+package com.newswebsite.client.soap;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Settings used to build a {@link SoapClient}.
+ * Values can be read from the same properties that NewsClientApplication loads from config.properties.
+ */
+public class SoapClientConfig {
+
+    public static final String SERVICE_URL_PROPERTY = "soap.service.url";
+    public static final String WSDL_MODE_PROPERTY = "soap.wsdl.mode";
+    public static final String POOL_SIZE_PROPERTY = "soap.pool.size";
+    public static final String POOL_BORROW_TIMEOUT_PROPERTY = "soap.pool.borrow.timeout.ms";
+    public static final String CONNECT_TIMEOUT_PROPERTY = "soap.connect.timeout.ms";
+    /** Default read timeout; append ".operationName" (e.g. ".getUsers") to override it for one operation */
+    public static final String REQUEST_TIMEOUT_PROPERTY = "soap.request.timeout.ms";
+    public static final String KEEP_ALIVE_PROPERTY = "soap.keepalive";
+    public static final String MAX_CONNECTIONS_PROPERTY = "soap.keepalive.max.connections";
+    public static final String GZIP_REQUESTS_PROPERTY = "soap.gzip.requests";
+    public static final String GZIP_RESPONSES_PROPERTY = "soap.gzip.responses";
+    public static final String METRICS_ENABLED_PROPERTY = "soap.metrics.enabled";
+    public static final String METRICS_PAYLOAD_SAMPLE_PROPERTY = "soap.metrics.payload.sample";
+    public static final String RETRY_MAX_ATTEMPTS_PROPERTY = "soap.retry.max.attempts";
+    public static final String RETRY_BACKOFF_PROPERTY = "soap.retry.backoff.ms";
+    public static final String RETRY_MAX_BACKOFF_PROPERTY = "soap.retry.backoff.max.ms";
+    public static final String CIRCUIT_FAILURE_THRESHOLD_PROPERTY = "soap.circuit.failure.threshold";
+    public static final String CIRCUIT_OPEN_PROPERTY = "soap.circuit.open.ms";
+    public static final String RECONNECT_INTERVAL_PROPERTY = "soap.reconnect.interval.ms";
+    public static final String COALESCE_READS_PROPERTY = "soap.coalesce.reads";
+
+    public static final String DEFAULT_SERVICE_URL = "http://localhost:8080/soap";
+    public static final int DEFAULT_CONNECT_TIMEOUT_MILLIS = 5_000;
+    public static final int DEFAULT_REQUEST_TIMEOUT_MILLIS = 30_000;
+    public static final int DEFAULT_METRICS_PAYLOAD_SAMPLE = 100;
+    public static final int DEFAULT_RETRY_MAX_ATTEMPTS = 3;
+    public static final int DEFAULT_RETRY_BACKOFF_MILLIS = 100;
+    public static final int DEFAULT_RETRY_MAX_BACKOFF_MILLIS = 2_000;
+    public static final int DEFAULT_CIRCUIT_FAILURE_THRESHOLD = 5;
+    public static final int DEFAULT_CIRCUIT_OPEN_MILLIS = 10_000;
+    public static final int DEFAULT_RECONNECT_INTERVAL_MILLIS = 5_000;
+
+    /**
+     * Where the WSDL describing the service is read from
+     */
+    public enum WsdlMode {
+        /** Use the WSDL bundled in the jar and point the port at the service URL; no network at startup */
+        BUNDLED,
+        /** Download serviceUrl?wsdl when the client is created */
+        REMOTE
+    }
+
+    private String serviceUrl = DEFAULT_SERVICE_URL;
+    private WsdlMode wsdlMode = WsdlMode.BUNDLED;
+    private int poolSize = Runtime.getRuntime().availableProcessors();
+    private int poolBorrowTimeoutMillis = -1;
+    private int connectTimeoutMillis = DEFAULT_CONNECT_TIMEOUT_MILLIS;
+    private int requestTimeoutMillis = DEFAULT_REQUEST_TIMEOUT_MILLIS;
+    private final Map<String, Integer> operationTimeoutsMillis = new HashMap<>();
+    private boolean keepAlive = true;
+    private int maxKeepAliveConnections = -1;
+    private boolean gzipRequests = false;
+    private boolean gzipResponses = true;
+    private boolean metricsEnabled = true;
+    private int metricsPayloadSample = DEFAULT_METRICS_PAYLOAD_SAMPLE;
+    private int retryMaxAttempts = DEFAULT_RETRY_MAX_ATTEMPTS;
+    private int retryBackoffMillis = DEFAULT_RETRY_BACKOFF_MILLIS;
+    private int retryMaxBackoffMillis = DEFAULT_RETRY_MAX_BACKOFF_MILLIS;
+    private int circuitFailureThreshold = DEFAULT_CIRCUIT_FAILURE_THRESHOLD;
+    private int circuitOpenMillis = DEFAULT_CIRCUIT_OPEN_MILLIS;
+    private int reconnectIntervalMillis = DEFAULT_RECONNECT_INTERVAL_MILLIS;
+    private boolean coalesceReads = true;
+
+    public static SoapClientConfig defaults() {
+        return new SoapClientConfig();
+    }
+
+    /**
+     * Read the configuration from properties, falling back to defaults for missing keys
+     */
+    public static SoapClientConfig fromProperties(Properties props) {
+        SoapClientConfig config = new SoapClientConfig();
+        config.serviceUrl = props.getProperty(SERVICE_URL_PROPERTY, DEFAULT_SERVICE_URL).trim();
+        String mode = props.getProperty(WSDL_MODE_PROPERTY);
+        if (mode != null && !mode.trim().isEmpty()) {
+            config.wsdlMode = WsdlMode.valueOf(mode.trim().toUpperCase());
+        }
+        String poolSize = props.getProperty(POOL_SIZE_PROPERTY);
+        if (poolSize != null && !poolSize.trim().isEmpty()) {
+            config.poolSize = Integer.parseInt(poolSize.trim());
+        }
+        config.poolBorrowTimeoutMillis = intProperty(props, POOL_BORROW_TIMEOUT_PROPERTY, config.poolBorrowTimeoutMillis);
+        config.connectTimeoutMillis = intProperty(props, CONNECT_TIMEOUT_PROPERTY, config.connectTimeoutMillis);
+        config.requestTimeoutMillis = intProperty(props, REQUEST_TIMEOUT_PROPERTY, config.requestTimeoutMillis);
+        String operationPrefix = REQUEST_TIMEOUT_PROPERTY + ".";
+        for (String name : props.stringPropertyNames()) {
+            if (name.startsWith(operationPrefix) && name.length() > operationPrefix.length()) {
+                config.operationTimeoutsMillis.put(name.substring(operationPrefix.length()),
+                    intProperty(props, name, config.requestTimeoutMillis));
+            }
+        }
+        config.keepAlive = booleanProperty(props, KEEP_ALIVE_PROPERTY, config.keepAlive);
+        config.maxKeepAliveConnections = intProperty(props, MAX_CONNECTIONS_PROPERTY, config.maxKeepAliveConnections);
+        config.gzipRequests = booleanProperty(props, GZIP_REQUESTS_PROPERTY, config.gzipRequests);
+        config.gzipResponses = booleanProperty(props, GZIP_RESPONSES_PROPERTY, config.gzipResponses);
+        config.metricsEnabled = booleanProperty(props, METRICS_ENABLED_PROPERTY, config.metricsEnabled);
+        config.metricsPayloadSample = intProperty(props, METRICS_PAYLOAD_SAMPLE_PROPERTY, config.metricsPayloadSample);
+        config.retryMaxAttempts = intProperty(props, RETRY_MAX_ATTEMPTS_PROPERTY, config.retryMaxAttempts);
+        config.retryBackoffMillis = intProperty(props, RETRY_BACKOFF_PROPERTY, config.retryBackoffMillis);
+        config.retryMaxBackoffMillis = intProperty(props, RETRY_MAX_BACKOFF_PROPERTY, config.retryMaxBackoffMillis);
+        config.circuitFailureThreshold = intProperty(props, CIRCUIT_FAILURE_THRESHOLD_PROPERTY, config.circuitFailureThreshold);
+        config.circuitOpenMillis = intProperty(props, CIRCUIT_OPEN_PROPERTY, config.circuitOpenMillis);
+        config.reconnectIntervalMillis = intProperty(props, RECONNECT_INTERVAL_PROPERTY, config.reconnectIntervalMillis);
+        config.coalesceReads = booleanProperty(props, COALESCE_READS_PROPERTY, config.coalesceReads);
+        return config;
+    }
+
+    private static int intProperty(Properties props, String name, int defaultValue) {
+        String value = props.getProperty(name);
+        return value == null || value.trim().isEmpty() ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    private static boolean booleanProperty(Properties props, String name, boolean defaultValue) {
+        String value = props.getProperty(name);
+        return value == null || value.trim().isEmpty() ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
+
+    /**
+     * Independent copy, so a command can adjust its settings without changing the shared configuration
+     */
+    public SoapClientConfig copy() {
+        SoapClientConfig copy = new SoapClientConfig();
+        copy.serviceUrl = serviceUrl;
+        copy.wsdlMode = wsdlMode;
+        copy.poolSize = poolSize;
+        copy.poolBorrowTimeoutMillis = poolBorrowTimeoutMillis;
+        copy.connectTimeoutMillis = connectTimeoutMillis;
+        copy.requestTimeoutMillis = requestTimeoutMillis;
+        copy.operationTimeoutsMillis.putAll(operationTimeoutsMillis);
+        copy.keepAlive = keepAlive;
+        copy.maxKeepAliveConnections = maxKeepAliveConnections;
+        copy.gzipRequests = gzipRequests;
+        copy.gzipResponses = gzipResponses;
+        copy.metricsEnabled = metricsEnabled;
+        copy.metricsPayloadSample = metricsPayloadSample;
+        copy.retryMaxAttempts = retryMaxAttempts;
+        copy.retryBackoffMillis = retryBackoffMillis;
+        copy.retryMaxBackoffMillis = retryMaxBackoffMillis;
+        copy.circuitFailureThreshold = circuitFailureThreshold;
+        copy.circuitOpenMillis = circuitOpenMillis;
+        copy.reconnectIntervalMillis = reconnectIntervalMillis;
+        copy.coalesceReads = coalesceReads;
+        return copy;
+    }
+
+    public SoapClientConfig withServiceUrl(String serviceUrl) {
+        this.serviceUrl = serviceUrl;
+        return this;
+    }
+
+    public SoapClientConfig withWsdlMode(WsdlMode wsdlMode) {
+        this.wsdlMode = wsdlMode;
+        return this;
+    }
+
+    public SoapClientConfig withPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+        return this;
+    }
+
+    /**
+     * How long a call waits for a free port when all are in use; 0 waits forever,
+     * a negative value (the default) uses the request timeout
+     */
+    public SoapClientConfig withPoolBorrowTimeoutMillis(int poolBorrowTimeoutMillis) {
+        this.poolBorrowTimeoutMillis = poolBorrowTimeoutMillis;
+        return this;
+    }
+
+    /**
+     * Timeout for opening a connection; 0 waits forever
+     */
+    public SoapClientConfig withConnectTimeoutMillis(int connectTimeoutMillis) {
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        return this;
+    }
+
+    /**
+     * Read timeout for operations without their own value; 0 waits forever
+     */
+    public SoapClientConfig withRequestTimeoutMillis(int requestTimeoutMillis) {
+        this.requestTimeoutMillis = requestTimeoutMillis;
+        return this;
+    }
+
+    /**
+     * Read timeout for one operation, e.g. a longer one for large getUsers pages
+     */
+    public SoapClientConfig withRequestTimeoutMillis(String operation, int requestTimeoutMillis) {
+        this.operationTimeoutsMillis.put(operation, requestTimeoutMillis);
+        return this;
+    }
+
+    /**
+     * Reuse HTTP connections between calls; when false every request asks the server to close its connection
+     */
+    public SoapClientConfig withKeepAlive(boolean keepAlive) {
+        this.keepAlive = keepAlive;
+        return this;
+    }
+
+    /**
+     * Idle connections kept per server (JVM-wide http.maxConnections); -1 sizes it to the port pool
+     */
+    public SoapClientConfig withMaxKeepAliveConnections(int maxKeepAliveConnections) {
+        this.maxKeepAliveConnections = maxKeepAliveConnections;
+        return this;
+    }
+
+    public SoapClientConfig withGzipRequests(boolean gzipRequests) {
+        this.gzipRequests = gzipRequests;
+        return this;
+    }
+
+    public SoapClientConfig withGzipResponses(boolean gzipResponses) {
+        this.gzipResponses = gzipResponses;
+        return this;
+    }
+
+    /**
+     * Record per-operation latency, error and payload metrics (see {@link SoapMetrics})
+     */
+    public SoapClientConfig withMetrics(boolean metricsEnabled) {
+        this.metricsEnabled = metricsEnabled;
+        return this;
+    }
+
+    /**
+     * Measure the size of one message in this many; 0 relies on Content-Length headers only
+     */
+    public SoapClientConfig withMetricsPayloadSample(int metricsPayloadSample) {
+        this.metricsPayloadSample = metricsPayloadSample;
+        return this;
+    }
+
+    /**
+     * Attempts for idempotent operations (getUsers, getUserById), including the first; 1 disables retries
+     */
+    public SoapClientConfig withRetry(int maxAttempts, int backoffMillis, int maxBackoffMillis) {
+        this.retryMaxAttempts = maxAttempts;
+        this.retryBackoffMillis = backoffMillis;
+        this.retryMaxBackoffMillis = maxBackoffMillis;
+        return this;
+    }
+
+    /**
+     * Open the circuit after this many consecutive transport failures, for openMillis
+     */
+    public SoapClientConfig withCircuitBreaker(int failureThreshold, int openMillis) {
+        this.circuitFailureThreshold = failureThreshold;
+        this.circuitOpenMillis = openMillis;
+        return this;
+    }
+
+    /**
+     * Minimum time between two attempts to rebuild a client whose initialization failed
+     */
+    public SoapClientConfig withReconnectIntervalMillis(int reconnectIntervalMillis) {
+        this.reconnectIntervalMillis = reconnectIntervalMillis;
+        return this;
+    }
+
+    /**
+     * Let identical getUsers/getUserById calls made at the same time share one round-trip
+     */
+    public SoapClientConfig withCoalesceReads(boolean coalesceReads) {
+        this.coalesceReads = coalesceReads;
+        return this;
+    }
+
+    public String getServiceUrl() {
+        return serviceUrl;
+    }
+
+    public WsdlMode getWsdlMode() {
+        return wsdlMode;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public int getPoolBorrowTimeoutMillis() {
+        return poolBorrowTimeoutMillis >= 0 ? poolBorrowTimeoutMillis : requestTimeoutMillis;
+    }
+
+    public int getConnectTimeoutMillis() {
+        return connectTimeoutMillis;
+    }
+
+    public int getRequestTimeoutMillis() {
+        return requestTimeoutMillis;
+    }
+
+    /**
+     * Read timeout for the operation, falling back to the default request timeout
+     */
+    public int getRequestTimeoutMillis(String operation) {
+        Integer timeout = operation != null ? operationTimeoutsMillis.get(operation) : null;
+        return timeout != null ? timeout : requestTimeoutMillis;
+    }
+
+    public Map<String, Integer> getOperationTimeoutsMillis() {
+        return Collections.unmodifiableMap(operationTimeoutsMillis);
+    }
+
+    public boolean isKeepAlive() {
+        return keepAlive;
+    }
+
+    public int getMaxKeepAliveConnections() {
+        return maxKeepAliveConnections >= 0 ? maxKeepAliveConnections : Math.max(5, poolSize);
+    }
+
+    public boolean isGzipRequests() {
+        return gzipRequests;
+    }
+
+    public boolean isGzipResponses() {
+        return gzipResponses;
+    }
+
+    public boolean isMetricsEnabled() {
+        return metricsEnabled;
+    }
+
+    public int getMetricsPayloadSample() {
+        return metricsPayloadSample;
+    }
+
+    public int getRetryMaxAttempts() {
+        return retryMaxAttempts;
+    }
+
+    public int getRetryBackoffMillis() {
+        return retryBackoffMillis;
+    }
+
+    public int getRetryMaxBackoffMillis() {
+        return retryMaxBackoffMillis;
+    }
+
+    public int getCircuitFailureThreshold() {
+        return circuitFailureThreshold;
+    }
+
+    public int getCircuitOpenMillis() {
+        return circuitOpenMillis;
+    }
+
+    public int getReconnectIntervalMillis() {
+        return reconnectIntervalMillis;
+    }
+
+    public boolean isCoalesceReads() {
+        return coalesceReads;
+    }
+}
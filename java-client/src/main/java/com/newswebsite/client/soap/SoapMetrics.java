@@ -0,0 +1,101 @@
+package com.newswebsite.client.soap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Client-side SOAP metrics for the whole JVM, one {@link SoapOperationMetrics} per operation.
+ * Each operation is registered over JMX as {@code com.newswebsite.client:type=SoapMetrics,operation=<name>}.
+ */
+public class SoapMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(SoapMetrics.class);
+
+    public static final String JMX_DOMAIN = "com.newswebsite.client";
+
+    private static final SoapMetrics DEFAULT = new SoapMetrics(true);
+
+    private final ConcurrentMap<String, SoapOperationMetrics> operations = new ConcurrentHashMap<>();
+    private final boolean registerWithJmx;
+
+    public SoapMetrics(boolean registerWithJmx) {
+        this.registerWithJmx = registerWithJmx;
+    }
+
+    /**
+     * Metrics shared by all SOAP clients of this JVM
+     */
+    public static SoapMetrics getDefault() {
+        return DEFAULT;
+    }
+
+    public SoapOperationMetrics forOperation(String operation) {
+        SoapOperationMetrics metrics = operations.get(operation);
+        if (metrics != null) {
+            return metrics;
+        }
+        return operations.computeIfAbsent(operation, name -> {
+            SoapOperationMetrics created = new SoapOperationMetrics(name);
+            if (registerWithJmx) {
+                register(created);
+            }
+            return created;
+        });
+    }
+
+    /**
+     * Operations seen so far, by name
+     */
+    public List<SoapOperationMetrics> getOperations() {
+        List<SoapOperationMetrics> list = new ArrayList<>(operations.values());
+        list.sort(Comparator.comparing(SoapOperationMetrics::getOperation));
+        return list;
+    }
+
+    public void reset() {
+        operations.values().forEach(SoapOperationMetrics::reset);
+    }
+
+    /**
+     * Text table of all operations, for consoles and logs
+     */
+    public String format() {
+        StringBuilder table = new StringBuilder();
+        table.append(String.format("%-18s %8s %7s %9s %9s %9s %9s %9s %9s %11s %11s%n",
+            "Operation", "Calls", "Errors", "In-flight", "Coalesced", "p50 ms", "p90 ms", "p99 ms", "max ms", "avg req B", "avg resp B"));
+        for (SoapOperationMetrics metrics : getOperations()) {
+            table.append(String.format("%-18s %8d %7d %9d %9d %9.1f %9.1f %9.1f %9.1f %11s %11s%n",
+                metrics.getOperation(), metrics.getCalls(), metrics.getErrors(), metrics.getInFlight(), metrics.getCoalescedCalls(),
+                metrics.getLatencyP50Millis(), metrics.getLatencyP90Millis(), metrics.getLatencyP99Millis(),
+                metrics.getMaxLatencyMillis(), bytes(metrics.getMeanRequestBytes()), bytes(metrics.getMeanResponseBytes())));
+        }
+        return table.toString();
+    }
+
+    private static String bytes(double mean) {
+        // No sample measured yet
+        return mean > 0 ? String.format("%.0f", mean) : "-";
+    }
+
+    private static void register(SoapOperationMetrics metrics) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(JMX_DOMAIN + ":type=SoapMetrics,operation=" + metrics.getOperation());
+            if (!server.isRegistered(name)) {
+                server.registerMBean(metrics, name);
+            }
+        } catch (JMException | SecurityException e) {
+            logger.warn("Could not register SOAP metrics for {} over JMX: {}", metrics.getOperation(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.newswebsite.client.soap;
+
+import javax.xml.namespace.QName;
+import javax.xml.soap.SOAPException;
+import javax.xml.ws.BindingProvider;
+import javax.xml.ws.handler.MessageContext;
+import javax.xml.ws.handler.soap.SOAPHandler;
+import javax.xml.ws.handler.soap.SOAPMessageContext;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Client handler recording latency, errors, in-flight calls and payload sizes per operation.
+ *
+ * Timing and counting never touch the message. Reading the message as SAAJ would build a DOM
+ * and undo streaming, so payload sizes come from the response Content-Length when the server
+ * sends one, and otherwise from one message in every {@code payloadSampleEvery}.
+ * Transport failures and SOAP faults both count as errors; a response with success=false does not.
+ */
+public class SoapMetricsHandler implements SOAPHandler<SOAPMessageContext> {
+
+    private static final String START_NANOS = SoapMetricsHandler.class.getName() + ".start";
+    private static final String OPERATION = SoapMetricsHandler.class.getName() + ".operation";
+    private static final String RESPONDED = SoapMetricsHandler.class.getName() + ".responded";
+
+    private final SoapMetrics metrics;
+    private final int payloadSampleEvery;
+    private final AtomicLong messages = new AtomicLong();
+
+    /**
+     * @param payloadSampleEvery measure one message in this many; 0 only uses Content-Length headers
+     */
+    public SoapMetricsHandler(SoapMetrics metrics, int payloadSampleEvery) {
+        this.metrics = metrics;
+        this.payloadSampleEvery = payloadSampleEvery;
+    }
+
+    @Override
+    public boolean handleMessage(SOAPMessageContext context) {
+        boolean outbound = Boolean.TRUE.equals(context.get(MessageContext.MESSAGE_OUTBOUND_PROPERTY));
+        if (outbound) {
+            SoapOperationMetrics operation = metrics.forOperation(operationName(context));
+            context.put(OPERATION, operation);
+            if (sampled()) {
+                operation.recordRequestSize(serializedSize(context));
+            }
+            operation.callStarted();
+            context.put(START_NANOS, System.nanoTime());
+        } else {
+            context.put(RESPONDED, Boolean.TRUE);
+            SoapOperationMetrics operation = (SoapOperationMetrics) context.get(OPERATION);
+            if (operation != null) {
+                long length = contentLength(context);
+                if (length < 0 && sampled()) {
+                    length = serializedSize(context);
+                }
+                operation.recordResponseSize(length);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean handleFault(SOAPMessageContext context) {
+        // RESPONDED stays unset: the call is counted as an error in close()
+        return true;
+    }
+
+    @Override
+    public void close(MessageContext context) {
+        SoapOperationMetrics operation = (SoapOperationMetrics) context.get(OPERATION);
+        Long start = (Long) context.get(START_NANOS);
+        if (operation != null && start != null) {
+            operation.callFinished(System.nanoTime() - start, !Boolean.TRUE.equals(context.get(RESPONDED)));
+        }
+    }
+
+    @Override
+    public Set<QName> getHeaders() {
+        return Collections.emptySet();
+    }
+
+    private boolean sampled() {
+        return payloadSampleEvery > 0 && messages.incrementAndGet() % payloadSampleEvery == 0;
+    }
+
+    private static String operationName(MessageContext context) {
+        QName operation = (QName) context.get(MessageContext.WSDL_OPERATION);
+        if (operation != null) {
+            return operation.getLocalPart();
+        }
+        // Dispatch calls have no WSDL operation; they carry it as the SOAPAction
+        Object soapAction = context.get(BindingProvider.SOAPACTION_URI_PROPERTY);
+        return soapAction != null && !soapAction.toString().isEmpty() ? soapAction.toString() : "unknown";
+    }
+
+    @SuppressWarnings("unchecked")
+    private static long contentLength(MessageContext context) {
+        Map<String, List<String>> headers = (Map<String, List<String>>) context.get(MessageContext.HTTP_RESPONSE_HEADERS);
+        if (headers == null) {
+            return -1;
+        }
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            if ("Content-Length".equalsIgnoreCase(header.getKey()) && header.getValue() != null && !header.getValue().isEmpty()) {
+                try {
+                    return Long.parseLong(header.getValue().get(0).trim());
+                } catch (NumberFormatException e) {
+                    return -1;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static long serializedSize(SOAPMessageContext context) {
+        CountingOutputStream counter = new CountingOutputStream();
+        try {
+            context.getMessage().writeTo(counter);
+        } catch (SOAPException | IOException e) {
+            return -1;
+        }
+        return counter.count;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.newswebsite.client.soap;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and histograms for one SOAP operation.
+ * Recording is wait-free, so it can stay enabled on every call.
+ */
+public class SoapOperationMetrics implements SoapOperationMetricsMXBean {
+
+    // 1 µs to 10 min with 3 significant digits
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final long MAX_PAYLOAD_BYTES = 1L << 31;
+
+    private final String operation;
+    private final Histogram latencyMicros = new ConcurrentHistogram(1, MAX_LATENCY_MICROS, 3);
+    private final Histogram requestBytes = new ConcurrentHistogram(1, MAX_PAYLOAD_BYTES, 2);
+    private final Histogram responseBytes = new ConcurrentHistogram(1, MAX_PAYLOAD_BYTES, 2);
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    SoapOperationMetrics(String operation) {
+        this.operation = operation;
+    }
+
+    void callStarted() {
+        inFlight.incrementAndGet();
+    }
+
+    void callFinished(long elapsedNanos, boolean failed) {
+        inFlight.decrementAndGet();
+        calls.increment();
+        if (failed) {
+            errors.increment();
+        }
+        long micros = Math.max(1, Math.min(TimeUnit.NANOSECONDS.toMicros(elapsedNanos), MAX_LATENCY_MICROS));
+        latencyMicros.recordValue(micros);
+    }
+
+    void callCoalesced() {
+        coalesced.increment();
+    }
+
+    void recordRequestSize(long bytes) {
+        if (bytes > 0) {
+            requestBytes.recordValue(Math.min(bytes, MAX_PAYLOAD_BYTES));
+        }
+    }
+
+    void recordResponseSize(long bytes) {
+        if (bytes > 0) {
+            responseBytes.recordValue(Math.min(bytes, MAX_PAYLOAD_BYTES));
+        }
+    }
+
+    @Override
+    public String getOperation() {
+        return operation;
+    }
+
+    @Override
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    @Override
+    public long getCoalescedCalls() {
+        return coalesced.sum();
+    }
+
+    @Override
+    public double getMeanLatencyMillis() {
+        return latencyMicros.getTotalCount() == 0 ? 0 : latencyMicros.getMean() / 1000.0;
+    }
+
+    @Override
+    public double getLatencyP50Millis() {
+        return latencyPercentile(50);
+    }
+
+    @Override
+    public double getLatencyP90Millis() {
+        return latencyPercentile(90);
+    }
+
+    @Override
+    public double getLatencyP99Millis() {
+        return latencyPercentile(99);
+    }
+
+    @Override
+    public double getLatencyP999Millis() {
+        return latencyPercentile(99.9);
+    }
+
+    @Override
+    public double getMaxLatencyMillis() {
+        return latencyMicros.getMaxValue() / 1000.0;
+    }
+
+    @Override
+    public long getPayloadSamples() {
+        return requestBytes.getTotalCount() + responseBytes.getTotalCount();
+    }
+
+    @Override
+    public double getMeanRequestBytes() {
+        return requestBytes.getTotalCount() == 0 ? 0 : requestBytes.getMean();
+    }
+
+    @Override
+    public double getMeanResponseBytes() {
+        return responseBytes.getTotalCount() == 0 ? 0 : responseBytes.getMean();
+    }
+
+    @Override
+    public long getMaxResponseBytes() {
+        return responseBytes.getMaxValue();
+    }
+
+    @Override
+    public void reset() {
+        latencyMicros.reset();
+        requestBytes.reset();
+        responseBytes.reset();
+        calls.reset();
+        errors.reset();
+        coalesced.reset();
+    }
+
+    private double latencyPercentile(double percentile) {
+        return latencyMicros.getTotalCount() == 0 ? 0 : latencyMicros.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
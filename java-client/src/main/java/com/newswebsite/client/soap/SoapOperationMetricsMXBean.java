@@ -0,0 +1,42 @@
+package com.newswebsite.client.soap;
+
+/**
+ * JMX view of the client-side metrics of one SOAP operation.
+ * Latencies are in milliseconds, payload sizes in bytes.
+ */
+public interface SoapOperationMetricsMXBean {
+
+    String getOperation();
+
+    long getCalls();
+
+    long getErrors();
+
+    int getInFlight();
+
+    /** Calls answered with the result of an identical call already in flight, without a round-trip */
+    long getCoalescedCalls();
+
+    double getMeanLatencyMillis();
+
+    double getLatencyP50Millis();
+
+    double getLatencyP90Millis();
+
+    double getLatencyP99Millis();
+
+    double getLatencyP999Millis();
+
+    double getMaxLatencyMillis();
+
+    /** Number of messages whose size was measured (see soap.metrics.payload.sample) */
+    long getPayloadSamples();
+
+    double getMeanRequestBytes();
+
+    double getMeanResponseBytes();
+
+    long getMaxResponseBytes();
+
+    void reset();
+}
@@ -0,0 +1,197 @@
+package com.newswebsite.client.soap;
+
+import com.newswebsite.client.soap.generated.GetUsersRequest;
+import com.newswebsite.client.soap.generated.GetUsersResponse;
+import com.newswebsite.client.soap.generated.ObjectFactory;
+import com.newswebsite.client.soap.generated.User;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.util.JAXBSource;
+import javax.xml.transform.Source;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.sax.SAXResult;
+import javax.xml.transform.sax.SAXSource;
+import javax.xml.ws.Dispatch;
+import javax.xml.ws.WebServiceException;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * getUsers over a payload-mode {@code Dispatch<Source>} instead of the JAXB proxy.
+ *
+ * JAX-WS RI returns the response payload as a source backed by the StAX reader of the
+ * HTTP stream. This class reads it event by event and hands each {@code users} element
+ * to the consumer as soon as it is complete. The full user list is never built, so
+ * memory stays flat and the first user arrives before the rest of the page is read.
+ * The returned response holds success, error and pagination but no users.
+ */
+public class StreamingUsersDispatch {
+
+    private static final Map<String, BiConsumer<User, String>> USER_FIELDS = new HashMap<>();
+
+    static {
+        USER_FIELDS.put("id", User::setId);
+        USER_FIELDS.put("username", User::setUsername);
+        USER_FIELDS.put("email", User::setEmail);
+        USER_FIELDS.put("role", User::setRole);
+        USER_FIELDS.put("createdAt", User::setCreatedAt);
+        USER_FIELDS.put("updatedAt", User::setUpdatedAt);
+    }
+
+    private static final TransformerFactory TRANSFORMER_FACTORY = TransformerFactory.newInstance();
+
+    private static final class Jaxb {
+        // Creating the JAXB context is costly; do it on first streaming call only
+        static final JAXBContext INSTANCE = create();
+
+        private static JAXBContext create() {
+            try {
+                return JAXBContext.newInstance(ObjectFactory.class);
+            } catch (JAXBException e) {
+                throw new IllegalStateException("Cannot create JAXB context for the SOAP types", e);
+            }
+        }
+    }
+
+    private final Supplier<Dispatch<Source>> dispatchFactory;
+    private final BlockingQueue<Dispatch<Source>> idleDispatches;
+
+    /**
+     * @param dispatchFactory creates dispatches already pointed at the service endpoint
+     * @param maxIdle         dispatches kept for reuse; like ports, one is used by a single call at a time
+     */
+    public StreamingUsersDispatch(Supplier<Dispatch<Source>> dispatchFactory, int maxIdle) {
+        this.dispatchFactory = dispatchFactory;
+        this.idleDispatches = new ArrayBlockingQueue<>(Math.max(1, maxIdle));
+    }
+
+    /**
+     * Call getUsers and pass each user to the consumer, on the calling thread, as it is decoded
+     */
+    public GetUsersResponse getUsers(GetUsersRequest request, Consumer<User> consumer) {
+        Dispatch<Source> dispatch = idleDispatches.poll();
+        if (dispatch == null) {
+            dispatch = dispatchFactory.get();
+        }
+        try {
+            Source payload = dispatch.invoke(new JAXBSource(Jaxb.INSTANCE, request));
+            GetUsersResponse response = new GetUsersResponse();
+            parse(payload, new ResponseHandler(response, consumer));
+            return response;
+        } catch (JAXBException e) {
+            throw new WebServiceException("Cannot marshal getUsers request", e);
+        } finally {
+            idleDispatches.offer(dispatch);
+        }
+    }
+
+    private static void parse(Source payload, ResponseHandler handler) {
+        try {
+            if (payload instanceof SAXSource && ((SAXSource) payload).getXMLReader() != null) {
+                // JAX-WS RI: the reader replays the live StAX stream, no copy involved
+                SAXSource source = (SAXSource) payload;
+                XMLReader reader = source.getXMLReader();
+                reader.setContentHandler(handler);
+                reader.parse(source.getInputSource());
+            } else {
+                TRANSFORMER_FACTORY.newTransformer().transform(payload, new SAXResult(handler));
+            }
+        } catch (SAXException | IOException | TransformerException e) {
+            throw new WebServiceException("Cannot read getUsers response: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Decodes the getUsersResponse payload; elements are matched by local name
+     */
+    private static final class ResponseHandler extends DefaultHandler {
+        private final GetUsersResponse response;
+        private final Consumer<User> consumer;
+        private final StringBuilder text = new StringBuilder();
+        private int depth;
+        private User user;
+
+        ResponseHandler(GetUsersResponse response, Consumer<User> consumer) {
+            this.response = response;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            depth++;
+            text.setLength(0);
+            if (depth == 2 && "users".equals(name(localName, qName))) {
+                user = new User();
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            text.append(ch, start, length);
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            String name = name(localName, qName);
+            if (depth == 3 && user != null) {
+                BiConsumer<User, String> setter = USER_FIELDS.get(name);
+                if (setter != null) {
+                    setter.accept(user, text.toString());
+                }
+            } else if (depth == 2) {
+                endResponseField(name);
+            }
+            text.setLength(0);
+            depth--;
+        }
+
+        private void endResponseField(String name) {
+            String value = text.toString().trim();
+            switch (name) {
+                case "users":
+                    if (user != null) {
+                        consumer.accept(user);
+                        user = null;
+                    }
+                    break;
+                case "success":
+                    response.setSuccess(Boolean.parseBoolean(value));
+                    break;
+                case "error":
+                    response.setError(text.toString());
+                    break;
+                case "total":
+                    response.setTotal(Integer.valueOf(value));
+                    break;
+                case "page":
+                    response.setPage(Integer.valueOf(value));
+                    break;
+                case "limit":
+                    response.setLimit(Integer.valueOf(value));
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private static String name(String localName, String qName) {
+            if (localName != null && !localName.isEmpty()) {
+                return localName;
+            }
+            int colon = qName.indexOf(':');
+            return colon < 0 ? qName : qName.substring(colon + 1);
+        }
+    }
+}
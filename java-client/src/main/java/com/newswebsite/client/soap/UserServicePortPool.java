@@ -0,0 +1,109 @@
+package com.newswebsite.client.soap;
+
+import com.newswebsite.client.soap.generated.UserServiceSoap;
+
+import javax.xml.ws.WebServiceException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool of {@link UserServiceSoap} ports.
+ *
+ * JAX-WS proxies keep per-call state in their request context and must not be
+ * shared between threads, so each call borrows a port for its own exclusive use.
+ * Ports are created lazily from a single shared {@link javax.xml.ws.Service} up to the pool size.
+ */
+public class UserServicePortPool {
+
+    private final Supplier<UserServiceSoap> portFactory;
+    private final BlockingQueue<UserServiceSoap> idlePorts;
+    private final AtomicInteger createdPorts = new AtomicInteger();
+    private final int maxSize;
+    private final long borrowTimeoutMillis;
+
+    /**
+     * @param borrowTimeoutMillis how long a call waits for a free port when all are in use; 0 waits forever
+     */
+    public UserServicePortPool(Supplier<UserServiceSoap> portFactory, int maxSize, long borrowTimeoutMillis) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1");
+        }
+        this.portFactory = portFactory;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idlePorts = new ArrayBlockingQueue<>(maxSize);
+    }
+
+    /**
+     * Run a call on a borrowed port and return the port to the pool afterwards
+     */
+    public <T> T execute(Function<UserServiceSoap, T> call) {
+        UserServiceSoap port = borrow();
+        try {
+            return call.apply(port);
+        } finally {
+            release(port);
+        }
+    }
+
+    /**
+     * Borrow a port, creating one if the pool has not reached its maximum size
+     */
+    public UserServiceSoap borrow() {
+        UserServiceSoap port = idlePorts.poll();
+        if (port != null) {
+            return port;
+        }
+
+        int created = createdPorts.get();
+        while (created < maxSize) {
+            if (createdPorts.compareAndSet(created, created + 1)) {
+                try {
+                    return portFactory.get();
+                } catch (RuntimeException e) {
+                    createdPorts.decrementAndGet();
+                    throw e;
+                }
+            }
+            created = createdPorts.get();
+        }
+
+        try {
+            port = borrowTimeoutMillis > 0
+                ? idlePorts.poll(borrowTimeoutMillis, TimeUnit.MILLISECONDS)
+                : idlePorts.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WebServiceException("Interrupted while waiting for a SOAP port", e);
+        }
+        if (port == null) {
+            throw new WebServiceException("Timed out after " + borrowTimeoutMillis + " ms waiting for a SOAP port");
+        }
+        return port;
+    }
+
+    /**
+     * Return a borrowed port to the pool
+     */
+    public void release(UserServiceSoap port) {
+        if (port != null) {
+            idlePorts.offer(port);
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getCreatedPorts() {
+        return createdPorts.get();
+    }
+
+    public int getIdlePorts() {
+        return idlePorts.size();
+    }
+}
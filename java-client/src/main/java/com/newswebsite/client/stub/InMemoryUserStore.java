@@ -0,0 +1,398 @@
+package com.newswebsite.client.stub;
+
+import com.newswebsite.client.soap.generated.User;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * User table of the stub SOAP service.
+ *
+ * Seeded users are not stored: user {@code i} is derived from its index ({@code seed-<i>},
+ * {@code user<i>}, {@code user<i>@example.com}, one ADMIN in 100, one EDITOR in 10), so
+ * millions of them cost a few bytes each. Only changes are kept: a bit per deleted seeded user,
+ * a map of updated ones, and a list of added users.
+ *
+ * Listing follows the service: newest first, i.e. added users (latest first), then seeded
+ * users by index. Unfiltered pages and role-filtered pages of an unmodified seed are found
+ * by arithmetic; a role filter after seeded users were changed scans the seed.
+ */
+public class InMemoryUserStore {
+
+    public static final List<String> ROLES = List.of("VISITOR", "EDITOR", "ADMIN");
+
+    private static final String SEEDED_ID_PREFIX = "seed-";
+    private static final String ADDED_ID_PREFIX = "user-";
+    private static final Instant SEED_EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+    private static final DateTimeFormatter ISO_MILLIS =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'").withZone(ZoneOffset.UTC);
+
+    /**
+     * One page of users and the number of users matching the filter
+     */
+    public static final class Page {
+        private final List<User> users;
+        private final int total;
+
+        Page(List<User> users, int total) {
+            this.users = users;
+            this.total = total;
+        }
+
+        public List<User> getUsers() { return users; }
+        public int getTotal() { return total; }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private int seeded;
+    private final BitSet seededDeleted = new BitSet();
+    private final Map<Integer, User> seededUpdates = new HashMap<>();
+    // Index in the list is the number in the user id; deleted users leave a null
+    private final List<User> added = new ArrayList<>();
+    private int addedLive;
+    // Usernames and emails of added and updated users; derived seeded values are checked separately
+    private final Map<String, String> usernames = new HashMap<>();
+    private final Map<String, String> emails = new HashMap<>();
+    private final Map<String, Integer> roleCounts = new HashMap<>();
+
+    /**
+     * Add {@code count} derived users; only allowed once, before any seeded user is changed
+     */
+    public void seed(int count) {
+        lock.writeLock().lock();
+        try {
+            if (seeded != 0) {
+                throw new IllegalStateException("Store already seeded with " + seeded + " users");
+            }
+            int admins = (count + 99) / 100;
+            int everyTenth = (count + 9) / 10;
+            roleCounts.merge("ADMIN", admins, Integer::sum);
+            roleCounts.merge("EDITOR", everyTenth - admins, Integer::sum);
+            roleCounts.merge("VISITOR", count - everyTenth, Integer::sum);
+            seeded = count;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return addedLive + seeded - seededDeleted.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The user, or null if unknown
+     */
+    public User find(String id) {
+        lock.readLock().lock();
+        try {
+            return lookup(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param page 1-based
+     * @param role null for all roles
+     */
+    public Page list(int page, int limit, String role) {
+        lock.readLock().lock();
+        try {
+            long offset = (long) Math.max(0, page - 1) * Math.max(0, limit);
+            int total = role == null ? addedLive + seeded - seededDeleted.cardinality() : roleCounts.getOrDefault(role, 0);
+            List<User> users = new ArrayList<>(Math.min(Math.max(0, limit), 1000));
+            if (limit <= 0 || offset >= total) {
+                return new Page(users, total);
+            }
+
+            long skipped = 0;
+            for (int i = added.size() - 1; i >= 0 && users.size() < limit; i--) {
+                User user = added.get(i);
+                if (user != null && (role == null || role.equals(user.getRole()))) {
+                    if (skipped++ >= offset) {
+                        users.add(user);
+                    }
+                }
+            }
+            if (users.size() < limit) {
+                listSeeded(Math.max(0, offset - skipped), limit, role, users);
+            }
+            return new Page(users, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException with the service's error message when the username or email is taken
+     */
+    public User add(String username, String email, String role) {
+        lock.writeLock().lock();
+        try {
+            checkAvailable(username, email, null);
+            String now = ISO_MILLIS.format(Instant.now());
+            User user = user(ADDED_ID_PREFIX + added.size(), username, email, role, now, now);
+            added.add(user);
+            addedLive++;
+            usernames.put(username, user.getId());
+            emails.put(email, user.getId());
+            roleCounts.merge(role, 1, Integer::sum);
+            return user;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Change the non-null fields; null if the user is unknown
+     *
+     * @throws IllegalArgumentException with the service's error message when the username or email is taken
+     */
+    public User update(String id, String username, String email, String role) {
+        lock.writeLock().lock();
+        try {
+            User current = lookup(id);
+            if (current == null) {
+                return null;
+            }
+            checkAvailable(username, email, id);
+            User updated = user(id,
+                username != null ? username : current.getUsername(),
+                email != null ? email : current.getEmail(),
+                role != null ? role : current.getRole(),
+                current.getCreatedAt(), ISO_MILLIS.format(Instant.now()));
+            forget(current);
+            usernames.put(updated.getUsername(), id);
+            emails.put(updated.getEmail(), id);
+            roleCounts.merge(updated.getRole(), 1, Integer::sum);
+
+            int seededIndex = seededIndex(id);
+            if (seededIndex >= 0) {
+                seededUpdates.put(seededIndex, updated);
+            } else {
+                added.set(addedIndex(id), updated);
+            }
+            return updated;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return false if the user is unknown
+     */
+    public boolean delete(String id) {
+        lock.writeLock().lock();
+        try {
+            User current = lookup(id);
+            if (current == null) {
+                return false;
+            }
+            forget(current);
+            int seededIndex = seededIndex(id);
+            if (seededIndex >= 0) {
+                seededDeleted.set(seededIndex);
+                seededUpdates.remove(seededIndex);
+            } else {
+                added.set(addedIndex(id), null);
+                addedLive--;
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private User lookup(String id) {
+        if (id == null) {
+            return null;
+        }
+        int seededIndex = seededIndex(id);
+        if (seededIndex >= 0) {
+            return seededDeleted.get(seededIndex) ? null : seededUser(seededIndex);
+        }
+        int addedIndex = addedIndex(id);
+        return addedIndex >= 0 ? added.get(addedIndex) : null;
+    }
+
+    /**
+     * Append seeded users matching the role, skipping the first {@code offset} matches
+     */
+    private void listSeeded(long offset, int limit, String role, List<User> users) {
+        int i;
+        if (role == null) {
+            i = selectLive(offset);
+        } else if (seededUpdates.isEmpty() && seededDeleted.isEmpty()) {
+            i = nthDerivedWithRole(role, offset);
+        } else {
+            i = 0;
+            for (long matches = 0; i < seeded; i++) {
+                if (!seededDeleted.get(i) && role.equals(seededRole(i)) && matches++ == offset) {
+                    break;
+                }
+            }
+        }
+        while (i >= 0 && i < seeded && users.size() < limit) {
+            i = seededDeleted.nextClearBit(i);
+            if (i >= seeded) {
+                break;
+            }
+            if (role == null || role.equals(seededRole(i))) {
+                users.add(seededUser(i));
+            }
+            i++;
+        }
+    }
+
+    /**
+     * Index of the seeded user at position {@code offset} once deleted users are left out
+     */
+    private int selectLive(long offset) {
+        long position = offset;
+        for (int deleted = seededDeleted.nextSetBit(0); deleted >= 0 && deleted <= position;
+             deleted = seededDeleted.nextSetBit(deleted + 1)) {
+            position++;
+        }
+        return position >= seeded ? -1 : (int) position;
+    }
+
+    /**
+     * Index of the n-th derived user with the role (0-based), following {@link #derivedRole}
+     */
+    private static int nthDerivedWithRole(String role, long n) {
+        long index;
+        switch (role) {
+            case "ADMIN":
+                index = 100 * n;
+                break;
+            case "EDITOR":
+                // 10, 20, ..., 90 in each block of 100
+                index = (n / 9) * 100 + (n % 9 + 1) * 10;
+                break;
+            case "VISITOR":
+                // 1 to 9 in each block of 10
+                index = (n / 9) * 10 + n % 9 + 1;
+                break;
+            default:
+                return -1;
+        }
+        return index > Integer.MAX_VALUE ? -1 : (int) index;
+    }
+
+    private static String derivedRole(int index) {
+        if (index % 100 == 0) {
+            return "ADMIN";
+        }
+        return index % 10 == 0 ? "EDITOR" : "VISITOR";
+    }
+
+    private String seededRole(int index) {
+        User updated = seededUpdates.get(index);
+        return updated != null ? updated.getRole() : derivedRole(index);
+    }
+
+    private User seededUser(int index) {
+        User updated = seededUpdates.get(index);
+        if (updated != null) {
+            return updated;
+        }
+        String created = ISO_MILLIS.format(SEED_EPOCH.minusSeconds(index));
+        return user(SEEDED_ID_PREFIX + index, "user" + index, "user" + index + "@example.com", derivedRole(index),
+            created, created);
+    }
+
+    private void checkAvailable(String username, String email, String id) {
+        if (username != null && !isOwnedBy(usernames.get(username), id)) {
+            throw new IllegalArgumentException("username already exists");
+        }
+        if (username != null && !isOwnedBy(derivedOwner(username, "user", ""), id)) {
+            throw new IllegalArgumentException("username already exists");
+        }
+        if (email != null && !isOwnedBy(emails.get(email), id)) {
+            throw new IllegalArgumentException("email already exists");
+        }
+        if (email != null && !isOwnedBy(derivedOwner(email, "user", "@example.com"), id)) {
+            throw new IllegalArgumentException("email already exists");
+        }
+    }
+
+    private static boolean isOwnedBy(String owner, String id) {
+        return owner == null || owner.equals(id);
+    }
+
+    /**
+     * Id of the seeded user still holding a derived username or email, or null
+     */
+    private String derivedOwner(String value, String prefix, String suffix) {
+        if (!value.startsWith(prefix) || !value.endsWith(suffix) || value.length() <= prefix.length() + suffix.length()) {
+            return null;
+        }
+        int index = parseIndex(value.substring(prefix.length(), value.length() - suffix.length()));
+        if (index < 0 || index >= seeded || seededDeleted.get(index)) {
+            return null;
+        }
+        User updated = seededUpdates.get(index);
+        if (updated != null && !value.equals(updated.getUsername()) && !value.equals(updated.getEmail())) {
+            return null;
+        }
+        return SEEDED_ID_PREFIX + index;
+    }
+
+    private void forget(User user) {
+        usernames.remove(user.getUsername(), user.getId());
+        emails.remove(user.getEmail(), user.getId());
+        roleCounts.merge(user.getRole(), -1, Integer::sum);
+    }
+
+    private int seededIndex(String id) {
+        if (!id.startsWith(SEEDED_ID_PREFIX)) {
+            return -1;
+        }
+        int index = parseIndex(id.substring(SEEDED_ID_PREFIX.length()));
+        return index < seeded ? index : -1;
+    }
+
+    private int addedIndex(String id) {
+        if (!id.startsWith(ADDED_ID_PREFIX)) {
+            return -1;
+        }
+        int index = parseIndex(id.substring(ADDED_ID_PREFIX.length()));
+        return index < added.size() ? index : -1;
+    }
+
+    private static int parseIndex(String digits) {
+        if (digits.isEmpty() || digits.length() > 10 || (digits.length() > 1 && digits.charAt(0) == '0')) {
+            return -1;
+        }
+        for (int i = 0; i < digits.length(); i++) {
+            if (!Character.isDigit(digits.charAt(i))) {
+                return -1;
+            }
+        }
+        long value = Long.parseLong(digits);
+        return value > Integer.MAX_VALUE ? -1 : (int) value;
+    }
+
+    private static User user(String id, String username, String email, String role, String createdAt, String updatedAt) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setEmail(email);
+        user.setRole(role);
+        user.setCreatedAt(createdAt);
+        user.setUpdatedAt(updatedAt);
+        return user;
+    }
+}
@@ -0,0 +1,170 @@
+package com.newswebsite.client.stub;
+
+import com.newswebsite.client.soap.SoapCallExecutors;
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.xml.ws.Endpoint;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process SOAP user service for performance and integration testing without the Node
+ * service or its database. Publishes a {@link StubUserService} with {@code javax.xml.ws.Endpoint}
+ * on the loopback interface, at {@code /soap} like the real service ({@code ?wsdl} included).
+ *
+ * Added latency and transport errors (HTTP 503, seen by the client as a transport failure)
+ * apply to SOAP calls only and can be changed while the server runs.
+ */
+public class StubSoapServer implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(StubSoapServer.class);
+
+    public static final String CONTEXT_PATH = "/soap";
+    public static final int DEFAULT_THREADS = 64;
+
+    private static final String NODELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+    private final StubUserService service;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Endpoint endpoint;
+    private volatile long latencyMillis;
+    private volatile long latencyJitterMillis;
+    private volatile double transportErrorRate;
+
+    private StubSoapServer(StubUserService service, HttpServer server, ExecutorService executor, Endpoint endpoint) {
+        this.service = service;
+        this.server = server;
+        this.executor = executor;
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * Seed a new store with {@code users} users and serve it
+     *
+     * @param port 0 for any free port
+     */
+    public static StubSoapServer start(int port, int users, String adminUsername, String adminPassword) throws IOException {
+        InMemoryUserStore store = new InMemoryUserStore();
+        store.seed(users);
+        return start(port, new StubUserService(store, adminUsername, adminPassword), DEFAULT_THREADS);
+    }
+
+    /**
+     * @param port    0 for any free port
+     * @param threads server threads; calls sleeping for injected latency hold one each
+     */
+    public static StubSoapServer start(int port, StubUserService service, int threads) throws IOException {
+        if (System.getProperty(NODELAY_PROPERTY) == null) {
+            // Without TCP_NODELAY, Nagle and delayed ACKs add ~40 ms to every response.
+            // Read once when the JDK server is first used, so an explicit -D setting wins.
+            System.setProperty(NODELAY_PROPERTY, "true");
+        }
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        ExecutorService executor = SoapCallExecutors.newBoundedExecutor(threads, "stub-soap");
+        server.setExecutor(executor);
+        HttpContext context = server.createContext(CONTEXT_PATH);
+        Endpoint endpoint = Endpoint.create(service);
+        StubSoapServer stub = new StubSoapServer(service, server, executor, endpoint);
+        context.getFilters().add(stub.new FaultInjectionFilter());
+        endpoint.publish(context);
+        server.start();
+        logger.info("Stub SOAP service listening on {} with {} users", stub.getServiceUrl(), service.getStore().size());
+        return stub;
+    }
+
+    /**
+     * URL to give to the client, e.g. {@code SoapClientConfig.withServiceUrl}
+     */
+    public String getServiceUrl() {
+        InetSocketAddress address = server.getAddress();
+        return "http://" + address.getAddress().getHostAddress() + ":" + address.getPort() + CONTEXT_PATH;
+    }
+
+    public StubUserService getService() {
+        return service;
+    }
+
+    /**
+     * Delay every SOAP call by {@code millis} plus a uniform random part up to {@code jitterMillis}
+     */
+    public void setLatency(long millis, long jitterMillis) {
+        this.latencyMillis = millis;
+        this.latencyJitterMillis = jitterMillis;
+    }
+
+    /**
+     * Share of SOAP calls (0 to 1) answered with HTTP 503 instead of being processed
+     */
+    public void setTransportErrorRate(double transportErrorRate) {
+        this.transportErrorRate = transportErrorRate;
+    }
+
+    /**
+     * Share of SOAP calls (0 to 1) answered with {@code success=false} and an internal server error
+     */
+    public void setFailureRate(double failureRate) {
+        service.setFailureRate(failureRate);
+    }
+
+    @Override
+    public void close() {
+        endpoint.stop();
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Applies the injected latency and transport errors to POSTed SOAP messages; WSDL requests pass through
+     */
+    private final class FaultInjectionFilter extends Filter {
+
+        @Override
+        public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                chain.doFilter(exchange);
+                return;
+            }
+            long delay = latencyMillis;
+            long jitter = latencyJitterMillis;
+            if (jitter > 0) {
+                delay += ThreadLocalRandom.current().nextLong(jitter + 1);
+            }
+            if (delay > 0) {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            double errorRate = transportErrorRate;
+            if (errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+                // Read the request so the connection can be reused
+                try (InputStream body = exchange.getRequestBody()) {
+                    body.transferTo(OutputStream.nullOutputStream());
+                }
+                exchange.sendResponseHeaders(503, -1);
+                exchange.close();
+                return;
+            }
+            chain.doFilter(exchange);
+        }
+
+        @Override
+        public String description() {
+            return "Stub latency and transport error injection";
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.newswebsite.client.stub;
+
+import com.newswebsite.client.soap.generated.*;
+
+import javax.jws.WebService;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * {@link UserServiceSoap} over an {@link InMemoryUserStore}, with the validation and error
+ * messages of the Node soap-service. A single admin account can log in; its token is accepted
+ * by every other operation.
+ *
+ * A share of calls can be made to answer {@code success=false, error="Internal server error"},
+ * like the service does when its database fails.
+ */
+@WebService(endpointInterface = "com.newswebsite.client.soap.generated.UserServiceSoap",
+    serviceName = "UserService", portName = "UserServiceSoapPort", targetNamespace = "http://localhost:8080/soap")
+public class StubUserService implements UserServiceSoap {
+
+    private static final String INVALID_TOKEN = "Invalid or expired token";
+    private static final String INTERNAL_ERROR = "Internal server error";
+
+    private final InMemoryUserStore store;
+    private final String adminUsername;
+    private final String adminPassword;
+    private final User admin;
+    private final String token = "stub-" + UUID.randomUUID();
+    private volatile double failureRate;
+
+    /**
+     * Adds the admin account to the store
+     */
+    public StubUserService(InMemoryUserStore store, String adminUsername, String adminPassword) {
+        this.store = store;
+        this.adminUsername = adminUsername;
+        this.adminPassword = adminPassword;
+        this.admin = store.add(adminUsername, adminUsername + "@stub.local", "ADMIN");
+    }
+
+    public InMemoryUserStore getStore() {
+        return store;
+    }
+
+    /**
+     * Share of calls (0 to 1) answered with an internal server error
+     */
+    public void setFailureRate(double failureRate) {
+        this.failureRate = failureRate;
+    }
+
+    @Override
+    public AuthenticateUserResponse authenticateUser(AuthenticateUserRequest request) {
+        AuthenticateUserResponse response = new AuthenticateUserResponse();
+        if (request.getUsername() == null || request.getPassword() == null) {
+            return authenticationError(response, "Username and password are required");
+        }
+        if (shouldFail()) {
+            return authenticationError(response, INTERNAL_ERROR);
+        }
+        if (!adminUsername.equals(request.getUsername()) || !adminPassword.equals(request.getPassword())) {
+            return authenticationError(response, "Invalid credentials");
+        }
+        response.setSuccess(true);
+        response.setError("");
+        response.setToken(token);
+        response.setUser(admin);
+        return response;
+    }
+
+    @Override
+    public GetUsersResponse getUsers(GetUsersRequest request) {
+        GetUsersResponse response = new GetUsersResponse();
+        String error = checkToken(request.getToken());
+        if (error != null) {
+            response.setSuccess(false);
+            response.setError(error);
+            response.setTotal(0);
+            return response;
+        }
+        int page = request.getPage() != null ? request.getPage() : 1;
+        int limit = request.getLimit() != null ? request.getLimit() : 10;
+        String role = request.getRole() == null || request.getRole().isEmpty() ? null : request.getRole();
+        InMemoryUserStore.Page result = store.list(page, limit, role);
+        response.setSuccess(true);
+        response.setError("");
+        response.getUsers().addAll(result.getUsers());
+        response.setTotal(result.getTotal());
+        response.setPage(page);
+        response.setLimit(limit);
+        return response;
+    }
+
+    @Override
+    public GetUserByIdResponse getUserById(GetUserByIdRequest request) {
+        GetUserByIdResponse response = new GetUserByIdResponse();
+        String error = checkToken(request.getToken());
+        if (error == null && request.getUserId() == null) {
+            error = "User ID is required";
+        }
+        User user = error == null ? store.find(request.getUserId()) : null;
+        if (error == null && user == null) {
+            error = "User not found";
+        }
+        response.setSuccess(error == null);
+        response.setError(error == null ? "" : error);
+        response.setUser(user);
+        return response;
+    }
+
+    @Override
+    public AddUserResponse addUser(AddUserRequest request) {
+        AddUserResponse response = new AddUserResponse();
+        String role = request.getRole() != null ? request.getRole() : "VISITOR";
+        String error = checkToken(request.getToken());
+        if (error == null && (isBlank(request.getUsername()) || isBlank(request.getEmail()) || isBlank(request.getPassword()))) {
+            error = "Username, email, and password are required";
+        }
+        if (error == null && !InMemoryUserStore.ROLES.contains(role)) {
+            error = "Invalid role";
+        }
+        if (error == null) {
+            try {
+                response.setUser(store.add(request.getUsername(), request.getEmail(), role));
+            } catch (IllegalArgumentException e) {
+                error = e.getMessage();
+            }
+        }
+        response.setSuccess(error == null);
+        response.setError(error == null ? "" : error);
+        return response;
+    }
+
+    @Override
+    public UpdateUserResponse updateUser(UpdateUserRequest request) {
+        UpdateUserResponse response = new UpdateUserResponse();
+        String error = checkToken(request.getToken());
+        if (error == null && request.getUserId() == null) {
+            error = "User ID is required";
+        }
+        if (error == null && request.getRole() != null && !InMemoryUserStore.ROLES.contains(request.getRole())) {
+            error = "Invalid role";
+        }
+        if (error == null) {
+            try {
+                User user = store.update(request.getUserId(), request.getUsername(), request.getEmail(), request.getRole());
+                if (user == null) {
+                    error = "User not found";
+                }
+                response.setUser(user);
+            } catch (IllegalArgumentException e) {
+                error = e.getMessage();
+            }
+        }
+        response.setSuccess(error == null);
+        response.setError(error == null ? "" : error);
+        return response;
+    }
+
+    @Override
+    public DeleteUserResponse deleteUser(DeleteUserRequest request) {
+        DeleteUserResponse response = new DeleteUserResponse();
+        String error = checkToken(request.getToken());
+        if (error == null && request.getUserId() == null) {
+            error = "User ID is required";
+        }
+        if (error == null && admin.getId().equals(request.getUserId())) {
+            error = "Cannot delete your own account";
+        }
+        if (error == null && !store.delete(request.getUserId())) {
+            error = "User not found";
+        }
+        response.setSuccess(error == null);
+        response.setError(error == null ? "" : error);
+        return response;
+    }
+
+    /**
+     * Error message for the call, or null if allowed. Only the admin can log in, so a valid
+     * token always carries admin privileges.
+     */
+    private String checkToken(String requestToken) {
+        if (!token.equals(requestToken)) {
+            return INVALID_TOKEN;
+        }
+        return shouldFail() ? INTERNAL_ERROR : null;
+    }
+
+    private boolean shouldFail() {
+        double rate = failureRate;
+        return rate > 0 && ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    private static AuthenticateUserResponse authenticationError(AuthenticateUserResponse response, String error) {
+        response.setSuccess(false);
+        response.setError(error);
+        response.setToken("");
+        return response;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isEmpty();
+    }
+}
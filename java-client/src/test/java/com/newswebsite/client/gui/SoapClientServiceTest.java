@@ -0,0 +1,104 @@
+package com.newswebsite.client.gui;
+
+import com.newswebsite.client.soap.SoapClientConfig;
+import com.newswebsite.client.soap.generated.User;
+import com.newswebsite.client.stub.StubSoapServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Allers-retours par le vrai client JAX-WS avec le service simulé du même processus
+ */
+class SoapClientServiceTest {
+
+    private static final String ADMIN = "admin";
+    private static final String PASSWORD = "test-password";
+
+    private StubSoapServer server;
+    private SoapClientService client;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = StubSoapServer.start(0, 200, ADMIN, PASSWORD);
+        client = new SoapClientService(SoapClientConfig.defaults()
+            .withServiceUrl(server.getServiceUrl())
+            .withMetrics(false));
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+    }
+
+    @Test
+    void authenticatesWithTheStubAdmin() {
+        SoapClientService.UserResult refused = client.authenticateForGUI(ADMIN, "wrong");
+        assertFalse(refused.isSuccess());
+        assertEquals("Invalid credentials", refused.getError());
+        assertFalse(client.isAuthenticated());
+
+        SoapClientService.UserResult login = client.authenticateForGUI(ADMIN, PASSWORD);
+        assertTrue(login.isSuccess());
+        assertEquals(ADMIN, login.getUser().getUsername());
+        assertTrue(client.isAuthenticated());
+    }
+
+    @Test
+    void addsReadsUpdatesAndDeletesAUser() {
+        assertTrue(client.authenticateForGUI(ADMIN, PASSWORD).isSuccess());
+
+        SoapClientService.UsersResult first = client.getUsersForGUI(1, 20, null);
+        assertTrue(first.isSuccess());
+        // 200 utilisateurs générés et l'admin, le plus récent (l'admin) en premier
+        assertEquals(201, first.getTotal());
+        assertEquals(20, first.getUsers().size());
+        assertEquals(ADMIN, first.getUsers().get(0).getUsername());
+        assertEquals("seed-0", first.getUsers().get(1).getId());
+
+        SoapClientService.UserResult added = client.addUserForGUI("alice", "alice@example.com", "secret", "EDITOR");
+        assertTrue(added.isSuccess(), added.getError());
+        String id = added.getUser().getId();
+        assertFalse(client.addUserForGUI("user7", "other@example.com", "secret", "EDITOR").isSuccess());
+
+        User read = client.getUserByIdForGUI(id).getUser();
+        assertEquals("alice@example.com", read.getEmail());
+        assertEquals("EDITOR", read.getRole());
+
+        SoapClientService.UserResult updated = client.updateUserForGUI(id, null, "alice@corp.example", null, null);
+        assertTrue(updated.isSuccess(), updated.getError());
+        assertEquals("alice@corp.example", client.getUserByIdForGUI(id).getUser().getEmail());
+        assertEquals(202, client.getUsersForGUI(1, 20, null).getTotal());
+
+        assertTrue(client.deleteUserForGUI(id).isSuccess());
+        assertFalse(client.getUserByIdForGUI(id).isSuccess());
+        assertEquals(201, client.getUsersForGUI(1, 20, null).getTotal());
+    }
+
+    @Test
+    void cachedPagesFollowWrites() {
+        client.setCache(new UserCache());
+        assertTrue(client.authenticateForGUI(ADMIN, PASSWORD).isSuccess());
+
+        assertEquals(201, client.getUsersForGUI(1, 10, null).getTotal());
+        assertEquals(201, client.getUsersForGUI(1, 10, null).getTotal());
+        assertTrue(client.getCache().getHits() > 0);
+
+        String id = client.addUserForGUI("bob", "bob@example.com", "secret", "VISITOR").getUser().getId();
+        SoapClientService.UsersResult afterAdd = client.getUsersForGUI(1, 10, null);
+        assertEquals(202, afterAdd.getTotal());
+        assertEquals(id, afterAdd.getUsers().get(0).getId());
+
+        // Une modification faite par quelqu'un d'autre n'apparaît qu'une fois le cache vidé
+        server.getService().getStore().delete(id);
+        assertEquals(202, client.getUsersForGUI(1, 10, null).getTotal());
+        client.invalidateCache();
+        assertEquals(201, client.getUsersForGUI(1, 10, null).getTotal());
+    }
+}
@@ -0,0 +1,136 @@
+package com.newswebsite.client.rest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ArticleMirrorTest {
+
+    private static final Instant BASE = Instant.parse("2024-01-01T00:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void incrementalSyncStopsAtFirstPageOlderThanWatermark() throws IOException {
+        // Three pages of 100, 100 and 50 articles
+        FakeCatalogue catalogue = new FakeCatalogue(250);
+        try (ArticleMirror mirror = new ArticleMirror(directory)) {
+            ArticleMirror.SyncResult first = mirror.sync(catalogue, false);
+            assertEquals(3, first.getPagesRead());
+            assertEquals(250, first.getArticlesWritten());
+            assertEquals(catalogue.articles.get(0).getCreatedAt(), mirror.getWatermark());
+
+            ArticleMirror.SyncResult unchanged = mirror.sync(catalogue, false);
+            assertEquals(1, unchanged.getPagesRead());
+            assertEquals(0, unchanged.getArticlesWritten());
+
+            // A new article on page 1 pushes an unchanged one to page 2, where the sync stops
+            catalogue.publish(250);
+            ArticleMirror.SyncResult added = mirror.sync(catalogue, false);
+            assertEquals(2, added.getPagesRead());
+            assertEquals(1, added.getArticlesWritten());
+            assertEquals(251, mirror.size());
+        }
+    }
+
+    @Test
+    void editToAnOlderArticleNeedsFullRescan() throws IOException {
+        FakeCatalogue catalogue = new FakeCatalogue(250);
+        try (ArticleMirror mirror = new ArticleMirror(directory)) {
+            mirror.sync(catalogue, false);
+            Article old = catalogue.articles.get(240);
+            old.setTitle("edited");
+            old.setUpdatedAt(BASE.plusSeconds(10_000));
+
+            assertEquals(0, mirror.sync(catalogue, false).getArticlesWritten());
+            assertEquals("title-9", mirror.get(old.getId()).getTitle());
+
+            ArticleMirror.SyncResult full = mirror.sync(catalogue, true);
+            assertEquals(3, full.getPagesRead());
+            assertEquals(1, full.getArticlesWritten());
+            assertEquals("edited", mirror.get(old.getId()).getTitle());
+        }
+    }
+
+    @Test
+    void partialIndexEntryIsDroppedOnOpen() throws IOException {
+        FakeCatalogue catalogue = new FakeCatalogue(3);
+        try (ArticleMirror mirror = new ArticleMirror(directory)) {
+            mirror.sync(catalogue, false);
+        }
+        Path indexFile = directory.resolve("articles.idx");
+        long completeSize = Files.size(indexFile);
+        // An append interrupted halfway through the index entry
+        try (FileChannel index = FileChannel.open(indexFile, StandardOpenOption.APPEND)) {
+            index.write(ByteBuffer.wrap(new byte[] {5, 'a', 'r', 't', '-'}));
+        }
+
+        try (ArticleMirror mirror = new ArticleMirror(directory)) {
+            assertEquals(completeSize, Files.size(indexFile));
+            assertEquals(3, mirror.size());
+            assertEquals("title-2", mirror.get("art-2").getTitle());
+            assertEquals(catalogue.articles.get(0).getCreatedAt(), mirror.getWatermark());
+
+            // Later appends start on an entry boundary
+            catalogue.publish(3);
+            mirror.sync(catalogue, false);
+        }
+        try (ArticleMirror mirror = new ArticleMirror(directory)) {
+            assertEquals(4, mirror.size());
+            assertNotNull(mirror.get("art-3"));
+            assertNull(mirror.get("art-4"));
+        }
+    }
+
+    /**
+     * REST client serving an in-memory catalogue newest first, like GET /api/rest/articles
+     */
+    private static final class FakeCatalogue extends RestClient {
+        final List<Article> articles = new ArrayList<>();
+
+        FakeCatalogue(int count) {
+            super("http://localhost:1");
+            for (int i = 0; i < count; i++) {
+                publish(i);
+            }
+        }
+
+        void publish(int number) {
+            Article article = new Article();
+            article.setId("art-" + number);
+            article.setTitle("title-" + number);
+            article.setCreatedAt(BASE.plusSeconds(number));
+            article.setUpdatedAt(BASE.plusSeconds(number));
+            articles.add(0, article);
+        }
+
+        @Override
+        public Pagination streamArticles(int page, int limit, Boolean published, String category,
+                                         Consumer<Article> consumer) {
+            int from = Math.min(articles.size(), (page - 1) * limit);
+            int to = Math.min(articles.size(), from + limit);
+            articles.subList(from, to).forEach(consumer);
+            Pagination pagination = new Pagination();
+            pagination.setPage(page);
+            pagination.setLimit(limit);
+            pagination.setTotal(articles.size());
+            pagination.setPages((articles.size() + limit - 1) / limit);
+            return pagination;
+        }
+    }
+}
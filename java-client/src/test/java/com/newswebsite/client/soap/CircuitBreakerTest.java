@@ -0,0 +1,87 @@
+package com.newswebsite.client.soap;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+    @Test
+    void opensAfterThresholdConsecutiveFailures() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 3, 60_000);
+        fail(breaker);
+        fail(breaker);
+        succeed(breaker);
+        fail(breaker);
+        fail(breaker);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        fail(breaker);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+        assertTrue(breaker.getRemainingOpenMillis() > 59_000);
+    }
+
+    @Test
+    void halfOpenAllowsASingleTrial() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker("test", 1, 50);
+        fail(breaker);
+        TimeUnit.MILLISECONDS.sleep(60);
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertEquals(0, breaker.getRemainingOpenMillis());
+        assertFalse(breaker.tryAcquire());
+
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    void failedTrialReopensTheCircuit() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker("test", 5, 50);
+        for (int i = 0; i < 5; i++) {
+            fail(breaker);
+        }
+        TimeUnit.MILLISECONDS.sleep(60);
+
+        // One failure is enough once half-open
+        fail(breaker);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void cancelledTrialFreesTheSlotWithoutClosing() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker("test", 1, 50);
+        fail(breaker);
+        TimeUnit.MILLISECONDS.sleep(60);
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onCancelled();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void rejectsAThresholdBelowOne() {
+        assertThrows(IllegalArgumentException.class, () -> new CircuitBreaker("test", 0, 1000));
+    }
+
+    private static void fail(CircuitBreaker breaker) {
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+    }
+
+    private static void succeed(CircuitBreaker breaker) {
+        assertTrue(breaker.tryAcquire());
+        breaker.onSuccess();
+    }
+}
@@ -0,0 +1,150 @@
+package com.newswebsite.client.soap;
+
+import com.newswebsite.client.gui.SoapClientService;
+import com.newswebsite.client.soap.generated.GetUsersRequest;
+import com.newswebsite.client.soap.generated.GetUsersResponse;
+import com.newswebsite.client.stub.InMemoryUserStore;
+import com.newswebsite.client.stub.StubSoapServer;
+import com.newswebsite.client.stub.StubUserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.jws.WebService;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Single-flight reads against the stub service, whose getUsers answers are held back
+ */
+class SoapClientCoalescingTest {
+
+    private static final String ADMIN = "admin";
+    private static final String PASSWORD = "test-password";
+    private static final long READ_DELAY_MILLIS = 500;
+
+    private StubSoapServer server;
+    private SoapClientService client;
+    private ExecutorService callers;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        InMemoryUserStore store = new InMemoryUserStore();
+        store.seed(100);
+        server = StubSoapServer.start(0, new SlowReadService(store), StubSoapServer.DEFAULT_THREADS);
+        client = new SoapClientService(SoapClientConfig.defaults()
+            .withServiceUrl(server.getServiceUrl())
+            .withPoolSize(8)
+            .withCoalesceReads(true));
+        assertTrue(client.authenticateForGUI(ADMIN, PASSWORD).isSuccess());
+        callers = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void stopServer() {
+        callers.shutdownNow();
+        server.close();
+    }
+
+    @Test
+    void identicalConcurrentReadsShareOneCall() throws Exception {
+        long calls = metrics().getCalls();
+        long coalesced = metrics().getCoalescedCalls();
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<SoapClientService.UsersResult>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(CompletableFuture.supplyAsync(() -> {
+                awaitQuietly(start);
+                return client.getUsersDirect(1, 10, null);
+            }, callers));
+        }
+        start.countDown();
+        for (CompletableFuture<SoapClientService.UsersResult> result : results) {
+            assertEquals(101, result.get(5, TimeUnit.SECONDS).getTotal());
+        }
+
+        assertEquals(1, metrics().getCalls() - calls);
+        assertEquals(7, metrics().getCoalescedCalls() - coalesced);
+    }
+
+    @Test
+    void differentRequestsAreNotShared() throws Exception {
+        long calls = metrics().getCalls();
+        CompletableFuture<SoapClientService.UsersResult> first =
+            CompletableFuture.supplyAsync(() -> client.getUsersDirect(1, 10, null), callers);
+        CompletableFuture<SoapClientService.UsersResult> second =
+            CompletableFuture.supplyAsync(() -> client.getUsersDirect(2, 10, null), callers);
+
+        assertEquals("seed-8", first.get(5, TimeUnit.SECONDS).getUsers().get(9).getId());
+        assertEquals("seed-18", second.get(5, TimeUnit.SECONDS).getUsers().get(9).getId());
+        assertEquals(2, metrics().getCalls() - calls);
+    }
+
+    @Test
+    void readAfterAWriteDoesNotJoinAReadStartedBeforeIt() throws Exception {
+        long calls = metrics().getCalls();
+        long coalesced = metrics().getCoalescedCalls();
+
+        // Answered with the store as it was when it arrived, READ_DELAY_MILLIS later
+        CompletableFuture<SoapClientService.UsersResult> before =
+            CompletableFuture.supplyAsync(() -> client.getUsersDirect(1, 10, null), callers);
+        TimeUnit.MILLISECONDS.sleep(100);
+        assertTrue(client.addUserForGUI("dave", "dave@example.com", "secret", "VISITOR").isSuccess());
+        assertFalse(before.isDone(), "the first read should still be in flight");
+
+        SoapClientService.UsersResult after = client.getUsersDirect(1, 10, null);
+        assertEquals(102, after.getTotal());
+        assertEquals("dave", after.getUsers().get(0).getUsername());
+        assertEquals(101, before.get(5, TimeUnit.SECONDS).getTotal());
+
+        assertEquals(2, metrics().getCalls() - calls);
+        assertEquals(0, metrics().getCoalescedCalls() - coalesced);
+    }
+
+    private static SoapOperationMetrics metrics() {
+        return SoapMetrics.getDefault().forOperation("getUsers");
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Reads the page at once but answers READ_DELAY_MILLIS later, so a write can complete
+     * while the read is in flight
+     */
+    @WebService(endpointInterface = "com.newswebsite.client.soap.generated.UserServiceSoap",
+        serviceName = "UserService", portName = "UserServiceSoapPort", targetNamespace = "http://localhost:8080/soap")
+    public static final class SlowReadService extends StubUserService {
+
+        SlowReadService(InMemoryUserStore store) {
+            super(store, ADMIN, PASSWORD);
+        }
+
+        @Override
+        public GetUsersResponse getUsers(GetUsersRequest request) {
+            GetUsersResponse response = super.getUsers(request);
+            try {
+                TimeUnit.MILLISECONDS.sleep(READ_DELAY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return response;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.newswebsite.client.soap;
+
+import com.newswebsite.client.gui.SoapClientService;
+import com.newswebsite.client.stub.StubSoapServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Retries, circuit breaker and reconnection against the stub service with injected failures
+ */
+class SoapClientResilienceTest {
+
+    private static final String ADMIN = "admin";
+    private static final String PASSWORD = "test-password";
+    private static final int OPEN_MILLIS = 300;
+
+    private StubSoapServer server;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = StubSoapServer.start(0, 100, ADMIN, PASSWORD);
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.close();
+    }
+
+    @Test
+    void readsAreRetriedAfterTransportFailures() {
+        SoapClientService client = loggedInClient(config().withRetry(3, 1, 5));
+        server.setTransportErrorRate(1);
+
+        long calls = calls("getUsers");
+        SoapClientService.UsersResult result = client.getUsersDirect(1, 10, null);
+        assertFalse(result.isSuccess());
+        assertEquals(3, calls("getUsers") - calls);
+
+        server.setTransportErrorRate(0);
+        assertTrue(client.getUsersDirect(1, 10, null).isSuccess());
+    }
+
+    @Test
+    void writesAreNeverRetried() {
+        SoapClientService client = loggedInClient(config().withRetry(3, 1, 5));
+        server.setTransportErrorRate(1);
+
+        long calls = calls("addUser");
+        assertFalse(client.addUserForGUI("carol", "carol@example.com", "secret", "VISITOR").isSuccess());
+        assertEquals(1, calls("addUser") - calls);
+
+        calls = calls("deleteUser");
+        assertFalse(client.deleteUserForGUI("seed-1").isSuccess());
+        assertEquals(1, calls("deleteUser") - calls);
+    }
+
+    @Test
+    void failedResponsesAreNeitherRetriedNorCountedAgainstTheService() {
+        SoapClientService client = loggedInClient(config().withRetry(3, 1, 5).withCircuitBreaker(2, OPEN_MILLIS));
+        server.setFailureRate(1);
+
+        long calls = calls("getUsers");
+        for (int i = 0; i < 5; i++) {
+            SoapClientService.UsersResult result = client.getUsersDirect(1, 10, null);
+            assertFalse(result.isSuccess());
+            assertEquals("Internal server error", result.getError());
+        }
+        assertEquals(5, calls("getUsers") - calls);
+        assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitState());
+    }
+
+    @Test
+    void circuitOpensAfterConsecutiveTransportFailuresAndFailsFast() {
+        SoapClientService client = loggedInClient(config().withRetry(1, 0, 0).withCircuitBreaker(3, 60_000));
+        server.setTransportErrorRate(1);
+
+        for (int i = 0; i < 2; i++) {
+            assertFalse(client.getUsersDirect(1, 10, null).isSuccess());
+            assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitState());
+        }
+        assertFalse(client.getUsersDirect(1, 10, null).isSuccess());
+        assertEquals(CircuitBreaker.State.OPEN, client.getCircuitState());
+
+        // Nothing reaches the service while the circuit is open, even once it has recovered
+        server.setTransportErrorRate(0);
+        long calls = calls("getUsers");
+        SoapClientService.UsersResult rejected = client.getUsersDirect(1, 10, null);
+        assertFalse(rejected.isSuccess());
+        assertTrue(rejected.getError().contains("calls are suspended for"), rejected.getError());
+        assertEquals(0, calls("getUsers") - calls);
+    }
+
+    @Test
+    void halfOpenCircuitLetsOneTrialCallThrough() throws Exception {
+        SoapClientService client = loggedInClient(config().withRetry(1, 0, 0).withCircuitBreaker(1, OPEN_MILLIS));
+        server.setTransportErrorRate(1);
+        assertFalse(client.getUsersDirect(1, 10, null).isSuccess());
+        assertEquals(CircuitBreaker.State.OPEN, client.getCircuitState());
+
+        // A failed trial opens the circuit again at once
+        TimeUnit.MILLISECONDS.sleep(OPEN_MILLIS + 50);
+        assertFalse(client.getUsersDirect(1, 10, null).isSuccess());
+        assertEquals(CircuitBreaker.State.OPEN, client.getCircuitState());
+
+        // While the trial is in flight, other calls are rejected; its success closes the circuit
+        server.setTransportErrorRate(0);
+        server.setLatency(500, 0);
+        TimeUnit.MILLISECONDS.sleep(OPEN_MILLIS + 50);
+        CompletableFuture<SoapClientService.UsersResult> trial =
+            CompletableFuture.supplyAsync(() -> client.getUsersDirect(1, 10, null));
+        TimeUnit.MILLISECONDS.sleep(200);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, client.getCircuitState());
+        SoapClientService.UsersResult rejected = client.getUsersDirect(2, 10, null);
+        assertFalse(rejected.isSuccess());
+        assertTrue(rejected.getError().contains("until the trial call completes"), rejected.getError());
+
+        assertTrue(trial.get(5, TimeUnit.SECONDS).isSuccess());
+        assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitState());
+        server.setLatency(0, 0);
+        assertTrue(client.getUsersDirect(2, 10, null).isSuccess());
+    }
+
+    @Test
+    void clientConnectsOnceAServiceThatWasDownStarts() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket()) {
+            socket.bind(new InetSocketAddress("127.0.0.1", 0));
+            port = socket.getLocalPort();
+        }
+        String url = "http://127.0.0.1:" + port + StubSoapServer.CONTEXT_PATH;
+        SoapClientService client = new SoapClientService(SoapClientConfig.defaults()
+            .withServiceUrl(url)
+            .withWsdlMode(SoapClientConfig.WsdlMode.REMOTE)
+            .withReconnectIntervalMillis(100));
+        assertFalse(client.isServiceAvailable());
+
+        try (StubSoapServer late = StubSoapServer.start(port, 10, ADMIN, PASSWORD)) {
+            assertEquals(url, late.getServiceUrl());
+            TimeUnit.MILLISECONDS.sleep(150);
+            assertTrue(client.isServiceAvailable());
+            assertTrue(client.authenticateForGUI(ADMIN, PASSWORD).isSuccess());
+            assertEquals(11, client.getUsersDirect(1, 5, null).getTotal());
+        }
+    }
+
+    private SoapClientConfig config() {
+        return SoapClientConfig.defaults().withServiceUrl(server.getServiceUrl());
+    }
+
+    private static SoapClientService loggedInClient(SoapClientConfig config) {
+        SoapClientService client = new SoapClientService(config);
+        assertTrue(client.authenticateForGUI(ADMIN, PASSWORD).isSuccess());
+        return client;
+    }
+
+    /**
+     * Attempts sent for the operation so far, counted by the metrics handler of every client
+     */
+    private static long calls(String operation) {
+        return SoapMetrics.getDefault().forOperation(operation).getCalls();
+    }
+}
@@ -0,0 +1,178 @@
+package com.newswebsite.client.stub;
+
+import com.newswebsite.client.soap.generated.User;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryUserStoreTest {
+
+    private static final List<String> ROLE_FILTERS = Arrays.asList(null, "ADMIN", "EDITOR", "VISITOR");
+
+    @Test
+    void seededUsersAreDerivedFromTheirIndex() {
+        InMemoryUserStore store = new InMemoryUserStore();
+        store.seed(1000);
+
+        User user = store.find("seed-251");
+        assertEquals("user251", user.getUsername());
+        assertEquals("user251@example.com", user.getEmail());
+        assertEquals("VISITOR", user.getRole());
+        assertEquals("ADMIN", store.find("seed-300").getRole());
+        assertEquals("EDITOR", store.find("seed-310").getRole());
+        assertNull(store.find("seed-1000"));
+        assertNull(store.find("seed-01"));
+        assertEquals(10, store.list(1, 1, "ADMIN").getTotal());
+        assertEquals(90, store.list(1, 1, "EDITOR").getTotal());
+        assertEquals(900, store.list(1, 1, "VISITOR").getTotal());
+    }
+
+    @Test
+    void pagesOfAnUnmodifiedSeedMatchAScan() {
+        InMemoryUserStore store = new InMemoryUserStore();
+        store.seed(1234);
+        assertPagesMatchScan(store, 1234, 0);
+    }
+
+    @Test
+    void roleFilterArithmeticHoldsDeepIntoALargeSeed() {
+        InMemoryUserStore store = new InMemoryUserStore();
+        store.seed(2_000_000);
+
+        // n-th user of each role, found by walking the derived roles
+        int[] seen = new int[3];
+        int[] wanted = {19_999, 179_999, 1_799_999};
+        int[] found = new int[3];
+        for (int i = 0; i < 2_000_000; i++) {
+            int role = i % 100 == 0 ? 0 : i % 10 == 0 ? 1 : 2;
+            if (seen[role]++ == wanted[role]) {
+                found[role] = i;
+            }
+        }
+        assertEquals("seed-" + found[0], store.list(wanted[0] + 1, 1, "ADMIN").getUsers().get(0).getId());
+        assertEquals("seed-" + found[1], store.list(wanted[1] + 1, 1, "EDITOR").getUsers().get(0).getId());
+        assertEquals("seed-" + found[2], store.list(wanted[2] + 1, 1, "VISITOR").getUsers().get(0).getId());
+        // Last page of editors, then an empty one
+        assertEquals(Arrays.asList("seed-1999970", "seed-1999980", "seed-1999990"),
+            ids(store.list(18_000, 10, "EDITOR").getUsers()).subList(7, 10));
+        assertTrue(store.list(18_001, 10, "EDITOR").getUsers().isEmpty());
+    }
+
+    @Test
+    void pagesSkipDeletedSeededUsers() {
+        InMemoryUserStore store = new InMemoryUserStore();
+        store.seed(500);
+        for (int i : new int[] {0, 1, 2, 10, 99, 100, 101, 250, 498, 499}) {
+            assertTrue(store.delete("seed-" + i));
+        }
+        assertFalse(store.delete("seed-0"));
+        assertEquals(490, store.size());
+        assertEquals("seed-3", store.list(1, 1, null).getUsers().get(0).getId());
+        assertEquals("seed-497", store.list(490, 1, null).getUsers().get(0).getId());
+        assertPagesMatchScan(store, 500, 0);
+    }
+
+    @Test
+    void pagesAfterAddsUpdatesAndDeletesMatchAScan() {
+        InMemoryUserStore store = new InMemoryUserStore();
+        store.seed(300);
+        for (int i = 0; i < 25; i++) {
+            store.add("added" + i, "added" + i + "@example.com", InMemoryUserStore.ROLES.get(i % 3));
+        }
+        store.delete("user-3");
+        store.delete("seed-7");
+        store.delete("seed-200");
+        store.update("seed-5", null, null, "ADMIN");
+        store.update("seed-100", null, null, "VISITOR");
+        store.update("user-4", "renamed", null, "EDITOR");
+
+        assertEquals(322, store.size());
+        // Added users come first, latest first
+        assertEquals("user-24", store.list(1, 1, null).getUsers().get(0).getId());
+        assertPagesMatchScan(store, 300, 25);
+    }
+
+    @Test
+    void derivedUsernamesAndEmailsAreTaken() {
+        InMemoryUserStore store = new InMemoryUserStore();
+        store.seed(100);
+
+        IllegalArgumentException username = assertThrows(IllegalArgumentException.class,
+            () -> store.add("user5", "new@example.com", "VISITOR"));
+        assertEquals("username already exists", username.getMessage());
+        IllegalArgumentException email = assertThrows(IllegalArgumentException.class,
+            () -> store.add("new", "user5@example.com", "VISITOR"));
+        assertEquals("email already exists", email.getMessage());
+
+        // Outside the seed, or not the derived spelling
+        assertDoesNotThrow(() -> store.add("user100", "user100@example.com", "VISITOR"));
+        assertDoesNotThrow(() -> store.add("user05", "user05@example.com", "VISITOR"));
+        // A user may keep its own values
+        assertNotNull(store.update("seed-8", "user8", "user8@example.com", null));
+    }
+
+    @Test
+    void derivedValuesAreReleasedByDeleteAndRename() {
+        InMemoryUserStore store = new InMemoryUserStore();
+        store.seed(100);
+
+        store.delete("seed-5");
+        assertDoesNotThrow(() -> store.add("user5", "user5@example.com", "VISITOR"));
+
+        store.update("seed-6", "renamed6", null, null);
+        assertDoesNotThrow(() -> store.add("user6", "other6@example.com", "VISITOR"));
+        // The email was not changed and still belongs to seed-6
+        assertThrows(IllegalArgumentException.class, () -> store.add("other6", "user6@example.com", "VISITOR"));
+        assertThrows(IllegalArgumentException.class, () -> store.add("renamed6", "x@example.com", "VISITOR"));
+    }
+
+    /**
+     * Every page size and role filter gives the same users and totals as filtering a full scan
+     */
+    private static void assertPagesMatchScan(InMemoryUserStore store, int seeded, int added) {
+        List<User> all = new ArrayList<>();
+        for (int i = added - 1; i >= 0; i--) {
+            addIfPresent(all, store.find("user-" + i));
+        }
+        for (int i = 0; i < seeded; i++) {
+            addIfPresent(all, store.find("seed-" + i));
+        }
+        for (String role : ROLE_FILTERS) {
+            List<String> expected = all.stream()
+                .filter(user -> role == null || role.equals(user.getRole()))
+                .map(User::getId)
+                .collect(Collectors.toList());
+            for (int limit : new int[] {1, 7, 10, 100}) {
+                for (int page = 1; (long) (page - 1) * limit <= expected.size(); page++) {
+                    InMemoryUserStore.Page result = store.list(page, limit, role);
+                    int from = (page - 1) * limit;
+                    String where = "role " + role + ", page " + page + ", limit " + limit;
+                    assertEquals(expected.size(), result.getTotal(), where);
+                    assertEquals(expected.subList(from, Math.min(expected.size(), from + limit)),
+                        ids(result.getUsers()), where);
+                }
+            }
+        }
+    }
+
+    private static void addIfPresent(List<User> users, User user) {
+        if (user != null) {
+            users.add(user);
+        }
+    }
+
+    private static List<String> ids(List<User> users) {
+        return users.stream().map(User::getId).collect(Collectors.toList());
+    }
+}